@@ -0,0 +1,113 @@
+package fr.project.lib;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Element access by index and by label, column projection and pop
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class AccessBenchmark {
+    // Number of random cells read per invocation
+    private static final int CELLS = 1024;
+
+    // Number of views popped per invocation
+    private static final int POPS = 256;
+
+    private static final int WIDTH = 8;
+
+    @Param({"10000", "1000000", "10000000"})
+    int rows;
+
+    // Frame read by every invocation
+    DataFrame df;
+
+    // Random rows and columns, and the labels of the rows
+    private final int[] rowIndices = new int[CELLS];
+    private final int[] colIndices = new int[CELLS];
+    private final String[] rowLabels = new String[CELLS];
+    private final String[] colLabels = new String[CELLS];
+
+    @Setup(Level.Trial)
+    public void load() throws IOException {
+        df = BenchmarkData.frame(rows, WIDTH);
+        final Random random = new Random(42);
+        for (int k = 0; k < CELLS; k += 1) {
+            rowIndices[k] = random.nextInt(rows);
+            colIndices[k] = random.nextInt(WIDTH);
+            rowLabels[k] = df.li_label[rowIndices[k]];
+            colLabels[k] = df.col_label[colIndices[k]];
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CELLS)
+    public void getElemByIndex(final Blackhole bh) {
+        for (int k = 0; k < CELLS; k += 1) {
+            bh.consume(df.getElem(rowIndices[k], colIndices[k]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CELLS)
+    public void getElemByLabel(final Blackhole bh) {
+        for (int k = 0; k < CELLS; k += 1) {
+            bh.consume(df.getElem(rowLabels[k], colLabels[k]));
+        }
+    }
+
+    @Benchmark
+    public IDataFrame projectByLabel() {
+        return df.get("c0", "c2", "c4");
+    }
+
+    @Benchmark
+    public IDataFrame projectByIndex() {
+        return df.get(0, 2, 4);
+    }
+
+    /**
+     * Views of the frame, each popped once by a single invocation. Pops are
+     * batched so the invocation outlasts the timing overhead of its setup.
+     */
+    @State(Scope.Thread)
+    public static class Popped {
+        final DataFrame[] views = new DataFrame[POPS];
+
+        @Setup(Level.Invocation)
+        public void view(final AccessBenchmark b) {
+            for (int k = 0; k < POPS; k += 1) {
+                views[k] = (DataFrame) b.df.get(b.df.col_label);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POPS)
+    public void pop(final Popped p, final Blackhole bh) {
+        for (final DataFrame view : p.views) {
+            bh.consume(view.pop("c1"));
+        }
+    }
+}
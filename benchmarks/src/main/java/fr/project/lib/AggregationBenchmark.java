@@ -0,0 +1,70 @@
+package fr.project.lib;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Mean, Max and Min of an Integer or Float column, and CSV export.
+ * The cached statistics are dropped before each call, so that every call
+ * scans the column.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class AggregationBenchmark {
+    @Param({"10000", "1000000", "10000000"})
+    int rows;
+
+    // c0 is an Integer column, c1 a Float column
+    @Param({"c0", "c1"})
+    String column;
+
+    private DataFrame df;
+    private Column target;
+
+    @Setup(Level.Trial)
+    public void load() throws IOException {
+        df = BenchmarkData.frame(rows, BenchmarkData.KINDS);
+        target = df.columns[df.columnIndex(column)];
+    }
+
+    @Benchmark
+    public float mean() {
+        target.stats = null;
+        return df.Mean(column);
+    }
+
+    @Benchmark
+    public float max() {
+        target.stats = null;
+        return df.Max(column);
+    }
+
+    @Benchmark
+    public float min() {
+        target.stats = null;
+        return df.Min(column);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public String toCSV() {
+        return df.toCSV();
+    }
+}
@@ -0,0 +1,87 @@
+package fr.project.lib;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Synthetic tables for the benchmarks.
+ * Columns cycle through Integer, Float, String, Boolean and LocalDate values
+ * drawn from a fixed seed, so that every run reads the same bytes.
+ */
+final class BenchmarkData {
+    // Number of column types cycled through
+    static final int KINDS = 5;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Writes a table to a temporary file
+     *
+     * @param rows      Number of data rows
+     * @param width     Number of columns, labelled c0, c1...
+     * @param delimiter ',' or '\t'
+     * @return Path of the new file, to be deleted by the caller
+     * @throws IOException If file writing fails
+     */
+    static Path write(final int rows, final int width, final char delimiter) throws IOException {
+        final Path file = Files.createTempFile("bench", delimiter == '\t' ? ".tsv" : ".csv");
+        final Random random = new Random(42);
+        try (BufferedWriter w = Files.newBufferedWriter(file)) {
+            for (int j = 0; j < width; j += 1) {
+                if (j > 0) {
+                    w.write(delimiter);
+                }
+                w.write("c" + j);
+            }
+            for (int i = 0; i < rows; i += 1) {
+                w.write('\n');
+                for (int j = 0; j < width; j += 1) {
+                    if (j > 0) {
+                        w.write(delimiter);
+                    }
+                    w.write(value(random, j));
+                }
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Loads a table of the given shape
+     *
+     * @param rows  Number of rows
+     * @param width Number of columns
+     * @return New DataFrame
+     * @throws IOException If the temporary file cannot be written or read
+     */
+    static DataFrame frame(final int rows, final int width) throws IOException {
+        final Path file = write(rows, width, ',');
+        try {
+            return new DataFrame(file.toString());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Draws the text of a value
+     *
+     * @param random Source of values
+     * @param column Index of the column, giving the type of the value
+     * @return Text of the value
+     */
+    static String value(final Random random, final int column) {
+        return switch (column % KINDS) {
+            case 0 -> Integer.toString(random.nextInt(1_000_000));
+            case 1 -> Float.toString(random.nextFloat() * 1000);
+            case 2 -> "k" + random.nextInt(100);
+            case 3 -> Boolean.toString(random.nextBoolean());
+            default -> LocalDate.ofEpochDay(18_000 + random.nextInt(3650)).toString();
+        };
+    }
+}
@@ -0,0 +1,60 @@
+package fr.project.lib;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Type inference of a raw column by value type, over every row or over a
+ * leading sample
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class InferenceBenchmark {
+    @Param({"10000", "1000000", "10000000"})
+    int rows;
+
+    // Column of BenchmarkData giving the value type
+    @Param({"0", "1", "2", "4"})
+    int kind;
+
+    // Rows looked at, 0 for all of them
+    @Param({"0", "1000"})
+    int sampleRows;
+
+    // Raw text of the column
+    private ColumnBuilder raw;
+
+    @Setup(Level.Trial)
+    public void fill() {
+        final Random random = new Random(42);
+        raw = new ColumnBuilder();
+        for (int i = 0; i < rows; i += 1) {
+            final byte[] b = BenchmarkData.value(random, kind).getBytes(UTF_8);
+            raw.add(b, b.length);
+        }
+    }
+
+    @Benchmark
+    public Class<?> infer() {
+        return TypeInference.infer(raw, sampleRows);
+    }
+}
@@ -0,0 +1,60 @@
+package fr.project.lib;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Loading of CSV and TSV files by row count and width, type inference and
+ * conversion included
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class LoadBenchmark {
+    @Param({"10000", "1000000", "10000000"})
+    int rows;
+
+    @Param({"4", "16"})
+    int width;
+
+    @Param({"CommaSeparatedValues", "TabSeparatedValues"})
+    DataFrame.InputFormat format;
+
+    // File read by every invocation
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void write() throws IOException {
+        file = BenchmarkData.write(rows, width,
+                format == DataFrame.InputFormat.TabSeparatedValues ? '\t' : ',');
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public DataFrame load() throws IOException {
+        return new DataFrame(file.toString(), format);
+    }
+}
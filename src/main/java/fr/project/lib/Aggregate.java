@@ -0,0 +1,79 @@
+package fr.project.lib;
+
+import java.util.Locale;
+
+/**
+ * Aggregation computed per group by {@link GroupBy#agg(Aggregate...)}.
+ * Null values, and NaN values of Float columns, are skipped.
+ */
+public final class Aggregate {
+    /**
+     * Aggregation functions
+     */
+    enum Kind {
+        COUNT, SUM, MEAN, MIN, MAX
+    }
+
+    // Function applied
+    final Kind kind;
+
+    // Aggregated column, null for COUNT
+    final String column;
+
+    private Aggregate(final Kind kind, final String column) {
+        this.kind = kind;
+        this.column = column;
+    }
+
+    /**
+     * Counts the rows of each group
+     * @return Aggregation labelled "count", giving an Integer column
+     */
+    public static Aggregate count() {
+        return new Aggregate(Kind.COUNT, null);
+    }
+
+    /**
+     * Sums a numeric column
+     * @param column Name of an Integer or Float column
+     * @return Aggregation labelled "sum(column)", giving a Float column
+     */
+    public static Aggregate sum(final String column) {
+        return new Aggregate(Kind.SUM, column);
+    }
+
+    /**
+     * Averages a numeric column
+     * @param column Name of an Integer or Float column
+     * @return Aggregation labelled "mean(column)", giving a Float column
+     */
+    public static Aggregate mean(final String column) {
+        return new Aggregate(Kind.MEAN, column);
+    }
+
+    /**
+     * Finds the smallest value of a numeric column
+     * @param column Name of an Integer or Float column
+     * @return Aggregation labelled "min(column)", of the column type
+     */
+    public static Aggregate min(final String column) {
+        return new Aggregate(Kind.MIN, column);
+    }
+
+    /**
+     * Finds the largest value of a numeric column
+     * @param column Name of an Integer or Float column
+     * @return Aggregation labelled "max(column)", of the column type
+     */
+    public static Aggregate max(final String column) {
+        return new Aggregate(Kind.MAX, column);
+    }
+
+    /**
+     * Gets the label of the result column
+     * @return Function name, followed by the column name in parentheses
+     */
+    public String label() {
+        return column == null ? "count" : kind.name().toLowerCase(Locale.ROOT) + "(" + column + ")";
+    }
+}
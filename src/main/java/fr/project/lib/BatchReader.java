@@ -0,0 +1,241 @@
+package fr.project.lib;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import fr.project.lib.utility.DelimitedTokenizer;
+import fr.project.lib.utility.FieldSink;
+
+/**
+ * Streaming read of a delimited file as batches of rows, created by
+ * {@link DataFrame#batches(String, int)}.
+ * <p>The input is read in small chunks, and the tokenizer stops at the end of
+ * each batch and resumes from there for the next one, so only the current
+ * chunk and batch are held in memory. Column types are inferred once, from
+ * the first batch, and every batch has the same labels and types.
+ * <p>Batches can be consumed with {@link #hasNext()} and {@link #next()}, as
+ * a {@link #stream()}, or by a callback given to
+ * {@link #forEachRemaining(java.util.function.Consumer)}. Reading errors are
+ * then thrown as {@link UncheckedIOException}.
+ */
+public final class BatchReader implements Iterator<DataFrame>, Closeable {
+    // Bytes read from the input at once
+    private static final int CHUNK = 1 << 16;
+
+    private final InputStream in;
+    private final int batchRows;
+    private final DelimitedTokenizer tokenizer;
+    private final Sink sink = new Sink();
+
+    // Bytes read and not tokenized yet, between position and limit
+    private final byte[] chunk = new byte[CHUNK];
+    private final ByteBuffer buf = ByteBuffer.wrap(chunk, 0, 0);
+    private boolean ended;
+
+    // Type of each column, null until the first batch is read
+    private Class<?>[] types;
+
+    // Batch read ahead by hasNext, null if none
+    private DataFrame pending;
+
+    // Number of rows in the batches read so far
+    private long rowsRead;
+
+    BatchReader(final InputStream in, final byte delimiter, final int batchRows) {
+        if (batchRows <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchRows);
+        }
+        this.in = in;
+        this.batchRows = batchRows;
+        this.tokenizer = new DelimitedTokenizer(delimiter, sink);
+    }
+
+    /**
+     * Gets the column labels, reading the first batch if needed
+     * @return Labels of every batch, empty if the input has no header
+     * @throws UncheckedIOException If reading fails
+     */
+    public String[] labels() {
+        hasNext();
+        return sink.labels == null ? new String[0] : sink.labels.clone();
+    }
+
+    /**
+     * Gets the column types, reading the first batch if needed
+     * @return Types of every batch, inferred from the first one
+     * @throws UncheckedIOException If reading fails
+     */
+    public Class<?>[] types() {
+        hasNext();
+        return types == null ? new Class<?>[0] : types.clone();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (pending == null && !ended) {
+            try {
+                pending = read();
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return pending != null;
+    }
+
+    /**
+     * Gets the next batch
+     * @return New DataFrame with at most the batch size of rows
+     * @throws NoSuchElementException if every batch was read
+     * @throws UncheckedIOException If reading fails
+     * @throws IllegalStateException if a value does not match the type of
+     *         its column, as inferred from the first batch
+     */
+    @Override
+    public DataFrame next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final DataFrame rv = pending;
+        pending = null;
+        return rv;
+    }
+
+    /**
+     * Gets the remaining batches as a sequential stream, closing this reader
+     * when the stream is closed
+     * @return Stream of batches
+     */
+    public Stream<DataFrame> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this,
+                Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(() -> {
+                    try {
+                        close();
+                    } catch (final IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    @Override
+    public void close() throws IOException {
+        ended = true;
+        pending = null;
+        in.close();
+    }
+
+    /**
+     * Reads records until a batch is full or the input ends
+     *
+     * @return New batch, null if no record is left
+     * @throws IOException If reading fails
+     */
+    private DataFrame read() throws IOException {
+        sink.clear();
+        boolean full = false;
+        while (!full) {
+            if (!buf.hasRemaining()) {
+                final int n = in.read(chunk);
+                if (n == -1) {
+                    tokenizer.finish();
+                    ended = true;
+                    break;
+                }
+                buf.position(0).limit(n);
+            }
+            full = !tokenizer.feed(buf);
+        }
+        if (sink.rows == 0) {
+            ended = true;
+            return null;
+        }
+        if (types == null) {
+            types = new Class<?>[sink.builders.length];
+            for (int j = 0; j < types.length; j += 1) {
+                types[j] = TypeInference.infer(sink.builders[j], 0);
+            }
+        }
+        final Column[] cols = new Column[types.length];
+        for (int j = 0; j < cols.length; j += 1) {
+            cols[j] = DataFrame.convert(sink.builders[j], types[j]);
+            if (cols[j] == null) {
+                throw new IllegalStateException("Column '" + sink.labels[j] + "' has a value that is not of type "
+                        + types[j].getSimpleName() + " within the " + sink.rows + " rows after row " + rowsRead);
+            }
+        }
+        rowsRead += sink.rows;
+        return new DataFrame(sink.labels, cols, sink.rows);
+    }
+
+    /**
+     * Collects the fields of one batch, stopping the tokenizer once it is full
+     */
+    private final class Sink implements FieldSink {
+        // Labels of the header being read, then null
+        private List<String> headerFields = new ArrayList<>();
+
+        // Labels read from the header, null until the header is complete
+        String[] labels;
+
+        // Raw values of the current batch
+        ColumnBuilder[] builders;
+
+        // Rows of the current batch
+        int rows;
+
+        /**
+         * Starts a new batch
+         */
+        void clear() {
+            rows = 0;
+            if (labels != null) {
+                for (int j = 0; j < builders.length; j += 1) {
+                    builders[j] = new ColumnBuilder();
+                }
+            }
+        }
+
+        @Override
+        public void field(final int column, final byte[] buf, final int len, final boolean quoted) {
+            if (labels == null) {
+                headerFields.add(new String(buf, 0, len, UTF_8));
+            } else if (column < builders.length) {
+                if (len == 0 && !quoted) {
+                    builders[column].addMissing();
+                } else {
+                    builders[column].add(buf, len);
+                }
+            }
+        }
+
+        @Override
+        public boolean endRecord() {
+            if (labels == null) {
+                labels = headerFields.toArray(new String[0]);
+                headerFields = null;
+                builders = new ColumnBuilder[labels.length];
+                clear();
+                return true;
+            }
+            rows += 1;
+            for (final ColumnBuilder builder : builders) {
+                if (builder.size() < rows) {
+                    builder.addMissing();
+                }
+            }
+            return rows < batchRows;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package fr.project.lib;
+
+import java.util.Arrays;
+
+/**
+ * Column of Boolean values backed by a {@code boolean[]}
+ */
+final class BooleanColumn extends Column {
+    // Column values
+    boolean[] values;
+
+    // Number of rows, the array may have room for more
+    int size;
+
+    BooleanColumn(final boolean[] values) {
+        this.values = values;
+        this.size = values.length;
+    }
+
+    @Override
+    int size() {
+        return size;
+    }
+
+    @Override
+    Class<?> type() {
+        return Boolean.class;
+    }
+
+    @Override
+    Object value(final int row) {
+        return values[row];
+    }
+
+    @Override
+    void put(final int row, final Object value) {
+        values[row] = (Boolean) value;
+    }
+
+    @Override
+    void appendTo(final int row, final StringBuilder sb) {
+        sb.append(values[row]);
+    }
+
+    @Override
+    void copyInto(final Column dest, final int at) {
+        System.arraycopy(values, 0, ((BooleanColumn) dest).values, at, size);
+    }
+
+    @Override
+    Column takeValues(final int[] rows) {
+        final boolean[] rv = new boolean[rows.length];
+        for (int i = 0; i < rows.length; i += 1) {
+            rv[i] = values[rows[i]];
+        }
+        return new BooleanColumn(rv);
+    }
+
+    @Override
+    void resize(final int rows) {
+        if (rows > values.length) {
+            values = Arrays.copyOf(values, capacity(values.length, rows));
+        }
+        size = rows;
+    }
+
+    @Override
+    Column copyValues() {
+        return new BooleanColumn(Arrays.copyOf(values, size));
+    }
+}
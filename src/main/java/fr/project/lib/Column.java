@@ -0,0 +1,320 @@
+package fr.project.lib;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * A single column of a {@link DataFrame}.
+ * Values are kept in one contiguous array whose element type is chosen from
+ * the column type, so numeric and boolean columns hold primitives instead of
+ * boxed objects. The array may be longer than the column once rows have been
+ * appended, its spare room receiving the next rows.
+ */
+abstract class Column {
+    // Set once the column is referenced by several DataFrames, which must
+    // then copy it before changing its values
+    boolean shared;
+
+    // Statistics of the values, computed on first use and cleared on write
+    ColumnStats stats;
+
+    // Validity bitmap: bit i of word i / 64 is set when row i holds no
+    // value; null when every row holds one
+    long[] nulls;
+
+    /**
+     * Gets the number of values stored in the column
+     *
+     * @return Row count of the column
+     */
+    abstract int size();
+
+    /**
+     * Gets the type of the values stored in the column
+     *
+     * @return One of the classes reported through {@link DataFrame#col_types}
+     */
+    abstract Class<?> type();
+
+    /**
+     * Gets a value as an object
+     *
+     * @param row Index of the row
+     * @return Boxed value at the given row, null if the row holds no value
+     */
+    Object get(final int row) {
+        return isNull(row) ? null : value(row);
+    }
+
+    /**
+     * Gets the stored value of a row, whether or not it is null
+     *
+     * @param row Index of the row
+     * @return Boxed value at the given row
+     */
+    abstract Object value(int row);
+
+    /**
+     * Replaces a value
+     *
+     * @param row   Index of the row
+     * @param value New value, must match the column type, or null
+     * @throws ClassCastException if the value does not match the column type
+     */
+    void set(final int row, final Object value) {
+        if (value == null) {
+            setNull(row);
+        } else {
+            put(row, value);
+            if (nulls != null) {
+                nulls[row >>> 6] &= ~(1L << row);
+            }
+        }
+    }
+
+    /**
+     * Stores a non-null value
+     *
+     * @param row   Index of the row
+     * @param value New value, must match the column type
+     * @throws ClassCastException if the value does not match the column type
+     */
+    abstract void put(int row, Object value);
+
+    /**
+     * Checks if a row holds no value
+     *
+     * @param row Index of the row
+     * @return true if the value is null
+     */
+    final boolean isNull(final int row) {
+        return nulls != null && (nulls[row >>> 6] & (1L << row)) != 0;
+    }
+
+    /**
+     * Marks a row as holding no value
+     *
+     * @param row Index of the row
+     */
+    void setNull(final int row) {
+        if (nulls == null) {
+            nulls = new long[words(size())];
+        }
+        nulls[row >>> 6] |= 1L << row;
+    }
+
+    /**
+     * Gets the number of bitmap words covering some rows
+     *
+     * @param rows Number of rows
+     * @return Number of longs
+     */
+    static int words(final int rows) {
+        return (rows + 63) >>> 6;
+    }
+
+    /**
+     * Adds rows after the last one, holding default values and no nulls
+     * until set. Storage grows geometrically, so appending rows a few at a
+     * time costs amortized constant time per row.
+     *
+     * @param rows Number of rows to add
+     */
+    final void extend(final int rows) {
+        final int n = size() + rows;
+        resize(n);
+        if (nulls != null && nulls.length < words(n)) {
+            nulls = Arrays.copyOf(nulls, capacity(nulls.length, words(n)));
+        }
+        stats = null;
+    }
+
+    /**
+     * Sets the number of rows, growing the storage if needed
+     *
+     * @param rows New row count, at least the current one
+     */
+    abstract void resize(int rows);
+
+    /**
+     * Gets the storage length to grow to
+     *
+     * @param length Current storage length
+     * @param needed Smallest length needed
+     * @return New length, half as long again as the current one if enough
+     */
+    static int capacity(final int length, final int needed) {
+        return (int) Math.min(Integer.MAX_VALUE - 8, Math.max(needed, length + (length >> 1) + 16L));
+    }
+
+    /**
+     * Appends the text of a value, as written to CSV files
+     *
+     * @param row Index of the row
+     * @param sb  Buffer receiving the text
+     */
+    void appendTo(final int row, final StringBuilder sb) {
+        sb.append(get(row));
+    }
+
+    /**
+     * Creates an independent copy of the column
+     *
+     * @return New column with the same type, values and nulls
+     */
+    final Column copy() {
+        final Column rv = copyValues();
+        rv.nulls = nulls == null ? null : nulls.clone();
+        return rv;
+    }
+
+    /**
+     * Creates an independent copy of the stored values
+     *
+     * @return New column of the same kind, without nulls
+     */
+    abstract Column copyValues();
+
+    /**
+     * Creates a column holding the values of some rows
+     *
+     * @param rows Indices of the rows in the order of the result, -1 for a
+     *             null value
+     * @return New column of the same kind
+     */
+    final Column take(final int[] rows) {
+        long[] taken = null;
+        for (int i = 0; i < rows.length; i += 1) {
+            if (rows[i] < 0 || isNull(rows[i])) {
+                if (taken == null) {
+                    taken = new long[words(rows.length)];
+                }
+                taken[i >>> 6] |= 1L << i;
+            }
+        }
+        final Column rv;
+        if (taken == null) {
+            rv = takeValues(rows);
+        } else if (size() == 0) {
+            rv = of(type(), rows.length);
+        } else {
+            // Null rows read any stored value, their bit hides it
+            final int[] stored = new int[rows.length];
+            for (int i = 0; i < rows.length; i += 1) {
+                stored[i] = Math.max(rows[i], 0);
+            }
+            rv = takeValues(stored);
+        }
+        if (taken != null) {
+            rv.nulls = taken;
+            rv.hideNulls();
+        }
+        return rv;
+    }
+
+    /**
+     * Creates a column holding the stored values of some rows
+     *
+     * @param rows Indices of the rows, in the order of the result
+     * @return New column of the same kind, without nulls
+     */
+    abstract Column takeValues(int[] rows);
+
+    /**
+     * Overwrites the stored values of null rows where the storage has a
+     * value of its own for them, such as NaN for floats
+     */
+    void hideNulls() {
+    }
+
+    /**
+     * Copies every value into another column of the same kind
+     *
+     * @param dest Column receiving the values
+     * @param at   Row of dest receiving the first value
+     */
+    abstract void copyInto(Column dest, int at);
+
+    /**
+     * Gets the statistics of the values, computing them on first use
+     *
+     * @return Cached statistics, null if the column is not numeric
+     */
+    ColumnStats stats() {
+        if (stats == null) {
+            stats = ColumnStats.of(this);
+        }
+        return stats;
+    }
+
+    /**
+     * Creates a column holding the values of several columns one after the other
+     *
+     * @param type  Element type of the result
+     * @param parts Columns to concatenate, all of the given type
+     * @return New column of the summed size
+     */
+    static Column concat(final Class<?> type, final Column... parts) {
+        if (type == String.class && parts.length > 0
+                && Arrays.stream(parts).allMatch(p -> p instanceof DictionaryColumn)) {
+            final Column rv = DictionaryColumn.concat(Arrays.copyOf(parts, parts.length, DictionaryColumn[].class));
+            copyNulls(rv, parts);
+            return rv;
+        }
+        int total = 0;
+        for (final Column part : parts) {
+            total += part.size();
+        }
+        final Column rv = of(type, total);
+        int at = 0;
+        for (final Column part : parts) {
+            part.copyInto(rv, at);
+            at += part.size();
+        }
+        copyNulls(rv, parts);
+        return rv;
+    }
+
+    /**
+     * Sets the null bits of a concatenation from the bits of its parts
+     *
+     * @param rv    Concatenated column
+     * @param parts Columns concatenated, in order
+     */
+    static void copyNulls(final Column rv, final Column... parts) {
+        int at = 0;
+        for (final Column part : parts) {
+            if (part.nulls != null) {
+                for (int i = 0; i < part.size(); i += 1) {
+                    if (part.isNull(i)) {
+                        rv.setNull(at + i);
+                    }
+                }
+            }
+            at += part.size();
+        }
+    }
+
+    /**
+     * Creates an empty column able to hold values of the given type
+     *
+     * @param type Element type of the column
+     * @param size Number of rows
+     * @return Column of the matching storage kind
+     */
+    static Column of(final Class<?> type, final int size) {
+        if (type == Integer.class) {
+            return new IntColumn(new int[size]);
+        } else if (type == Float.class) {
+            return new FloatColumn(new float[size]);
+        } else if (type == Boolean.class) {
+            return new BooleanColumn(new boolean[size]);
+        } else if (type == LocalDate.class) {
+            return new DateColumn(new int[size]);
+        } else if (type == String.class) {
+            return new StringColumn(new String[size]);
+        } else {
+            return new ObjectColumn(new Object[size]);
+        }
+    }
+}
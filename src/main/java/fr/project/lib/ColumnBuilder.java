@@ -0,0 +1,147 @@
+package fr.project.lib;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Growable buffer collecting the raw text of one column while a file is read.
+ * Values are kept as undecoded UTF-8 bytes laid end to end, a String is only
+ * created when a value is asked for with {@link #text(int)}.
+ */
+final class ColumnBuilder {
+    // UTF-8 bytes of all values, only the first used bytes are meaningful
+    private byte[] bytes = new byte[256];
+    private int used;
+
+    // End offset in bytes of each value, only the first size entries are used
+    private int[] ends = new int[16];
+    private int size;
+
+    // Rows whose cell was absent from the record or empty without quotes
+    private final BitSet missing = new BitSet();
+
+    /**
+     * Appends a value
+     *
+     * @param buf Buffer holding the UTF-8 bytes of the value
+     * @param len Number of bytes of the value
+     */
+    void add(final byte[] buf, final int len) {
+        if (used + len > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, used + len));
+        }
+        System.arraycopy(buf, 0, bytes, used, len);
+        used += len;
+        push();
+    }
+
+    /**
+     * Appends a value given as a String
+     *
+     * @param value Raw text of the cell, null if the cell is missing
+     */
+    void add(final String value) {
+        if (value == null) {
+            addMissing();
+        } else {
+            final byte[] b = value.getBytes(UTF_8);
+            add(b, b.length);
+        }
+    }
+
+    /**
+     * Appends a cell that was absent from its record, or empty without quotes
+     */
+    void addMissing() {
+        missing.set(size);
+        push();
+    }
+
+    private void push() {
+        if (size == ends.length) {
+            ends = Arrays.copyOf(ends, size * 2);
+        }
+        ends[size++] = used;
+    }
+
+    /**
+     * Drops the values appended after a given count
+     *
+     * @param rows Number of values kept, at most {@link #size()}
+     */
+    void truncate(final int rows) {
+        size = rows;
+        used = start(rows);
+        missing.clear(rows, Math.max(rows, missing.length()));
+    }
+
+    /**
+     * Gets the number of values appended so far
+     *
+     * @return Number of values
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Gets the buffer holding the bytes of every value
+     *
+     * @return Backing array, valid until the next append
+     */
+    byte[] bytes() {
+        return bytes;
+    }
+
+    /**
+     * Gets the offset of the first byte of a value in {@link #bytes()}
+     *
+     * @param row Index of the value
+     * @return Start offset, inclusive
+     */
+    int start(final int row) {
+        return row == 0 ? 0 : ends[row - 1];
+    }
+
+    /**
+     * Gets the offset just after the last byte of a value in {@link #bytes()}
+     *
+     * @param row Index of the value
+     * @return End offset, exclusive
+     */
+    int end(final int row) {
+        return ends[row];
+    }
+
+    /**
+     * Checks if a cell was absent from its record, or empty without quotes
+     *
+     * @param row Index of the value
+     * @return true if the cell holds no value
+     */
+    boolean isMissing(final int row) {
+        return missing.get(row);
+    }
+
+    /**
+     * Gets the validity bitmap of the values, as kept by {@link Column#nulls}
+     *
+     * @return One bit per missing cell, null if no cell is missing
+     */
+    long[] nulls() {
+        return missing.isEmpty() ? null : Arrays.copyOf(missing.toLongArray(), Column.words(size));
+    }
+
+    /**
+     * Decodes a value, missing cells are returned as ""
+     *
+     * @param row Index of the value
+     * @return Raw text of the cell
+     */
+    String text(final int row) {
+        final int start = start(row);
+        return new String(bytes, start, ends[row] - start, UTF_8);
+    }
+}
@@ -0,0 +1,212 @@
+package fr.project.lib;
+
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Summary statistics of a numeric column, computed in a single pass by
+ * {@link NumericKernels}.
+ * Long columns are cut into ranges reduced on {@link Execution#getPool()},
+ * whose statistics are merged pairwise up the fork/join tree, so rounding
+ * errors grow with the depth of the tree rather than with the row count.
+ * Null values, and NaN values of Float columns, are counted as nulls and
+ * otherwise skipped.
+ */
+final class ColumnStats {
+    // Number of non-null values
+    long count;
+
+    // Number of null values
+    long nulls;
+
+    // Sum of the non-null values
+    double sum;
+
+    // Mean of the non-null values
+    double mean;
+
+    // Sum of squared deviations from the mean
+    double m2;
+
+    // Smallest and largest non-null values, NaN when there is none
+    double min = Double.NaN;
+    double max = Double.NaN;
+
+    /**
+     * Computes the statistics of a column
+     *
+     * @param c Column to summarize
+     * @return New statistics, null if the column is not numeric
+     */
+    static ColumnStats of(final Column c) {
+        if (c instanceof final IntColumn ic && ic.nulls != null) {
+            // Null rows are skipped in place, following the bitmap
+            return reduce((from, to) -> NumericKernels.get().summarize(ic.values, ic.nulls, from, to), ic.size);
+        } else if (c instanceof final IntColumn ic) {
+            return reduce((from, to) -> of(ic.values, from, to), ic.size);
+        } else if (c instanceof final FloatColumn fc) {
+            return reduce((from, to) -> of(fc.values, from, to), fc.size);
+        } else if (c instanceof final SegmentedColumn sc
+                && (sc.type() == Integer.class || sc.type() == Float.class)) {
+            // Segments keep their statistics in their spill file, so they are
+            // merged without reading every value again
+            ColumnStats rv = new ColumnStats();
+            for (int k = 0; k < sc.segmentCount(); k += 1) {
+                rv = merge(rv, sc.segment(k).stats());
+            }
+            return rv;
+        }
+        return null;
+    }
+
+    /**
+     * Statistics of a range of rows
+     */
+    @FunctionalInterface
+    interface RangeStats {
+        ColumnStats of(int from, int to);
+    }
+
+    /**
+     * Computes the statistics of all the rows, in parallel for long columns
+     *
+     * @param leaf Statistics of a range
+     * @param rows Number of rows
+     * @return New statistics
+     */
+    static ColumnStats reduce(final RangeStats leaf, final int rows) {
+        if (!Execution.reduceInParallel(rows)) {
+            return leaf.of(0, rows);
+        }
+        final int grain = Math.max(1 << 16, rows / (Execution.getPool().getParallelism() * 4));
+        return Execution.getPool().invoke(new Reduction(leaf, 0, rows, grain));
+    }
+
+    /**
+     * Splits a range in halves until they are small enough to be summarized
+     */
+    private static final class Reduction extends RecursiveTask<ColumnStats> {
+        private static final long serialVersionUID = 1L;
+
+        private final RangeStats leaf;
+        private final int from;
+        private final int to;
+        private final int grain;
+
+        Reduction(final RangeStats leaf, final int from, final int to, final int grain) {
+            this.leaf = leaf;
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected ColumnStats compute() {
+            if (to - from <= grain) {
+                return leaf.of(from, to);
+            }
+            final int mid = (from + to) >>> 1;
+            final Reduction left = new Reduction(leaf, from, mid, grain);
+            left.fork();
+            final ColumnStats right = new Reduction(leaf, mid, to, grain).compute();
+            return merge(left.join(), right);
+        }
+    }
+
+    /**
+     * Computes the statistics of a range of int values
+     *
+     * @param values Values to summarize
+     * @param from   First index, inclusive
+     * @param to     Last index, exclusive
+     * @return New statistics
+     */
+    static ColumnStats of(final int[] values, final int from, final int to) {
+        return NumericKernels.get().summarize(values, from, to);
+    }
+
+    /**
+     * Computes the statistics of a range of float values
+     *
+     * @param values Values to summarize
+     * @param from   First index, inclusive
+     * @param to     Last index, exclusive
+     * @return New statistics
+     */
+    static ColumnStats of(final float[] values, final int from, final int to) {
+        return NumericKernels.get().summarize(values, from, to);
+    }
+
+    /**
+     * Creates statistics from sums over values shifted by a constant
+     *
+     * @param count Number of non-null values
+     * @param nulls Number of null values
+     * @param shift Constant subtracted from every value
+     * @param s1    Sum of the shifted values
+     * @param sum   Sum of the values
+     * @param s2    Sum of the squared shifted values
+     * @param min   Smallest value
+     * @param max   Largest value
+     * @return New statistics
+     */
+    static ColumnStats of(final long count, final long nulls, final double shift, final double s1,
+            final double sum, final double s2, final double min, final double max) {
+        final ColumnStats s = new ColumnStats();
+        s.count = count;
+        s.nulls = nulls;
+        s.min = min;
+        s.max = max;
+        if (count > 0) {
+            s.sum = sum;
+            s.mean = shift + s1 / count;
+            s.m2 = Math.max(0, s2 - s1 * s1 / count);
+        }
+        return s;
+    }
+
+    /**
+     * Combines the statistics of two disjoint parts of a column
+     *
+     * @param a Statistics of the first part
+     * @param b Statistics of the second part
+     * @return New statistics of both parts together
+     */
+    static ColumnStats merge(final ColumnStats a, final ColumnStats b) {
+        if (a.count == 0 || b.count == 0) {
+            final ColumnStats s = copy(a.count == 0 ? b : a);
+            s.nulls = a.nulls + b.nulls;
+            return s;
+        }
+        final ColumnStats s = new ColumnStats();
+        s.count = a.count + b.count;
+        s.nulls = a.nulls + b.nulls;
+        s.sum = a.sum + b.sum;
+        final double delta = b.mean - a.mean;
+        s.mean = a.mean + delta * b.count / s.count;
+        s.m2 = a.m2 + b.m2 + delta * delta * ((double) a.count * b.count / s.count);
+        s.min = Math.min(a.min, b.min);
+        s.max = Math.max(a.max, b.max);
+        return s;
+    }
+
+    private static ColumnStats copy(final ColumnStats o) {
+        final ColumnStats s = new ColumnStats();
+        s.count = o.count;
+        s.nulls = o.nulls;
+        s.sum = o.sum;
+        s.mean = o.mean;
+        s.m2 = o.m2;
+        s.min = o.min;
+        s.max = o.max;
+        return s;
+    }
+
+    /**
+     * Gets the sample variance of the non-null values
+     *
+     * @return Variance with n - 1 degrees of freedom, NaN below two values
+     */
+    double variance() {
+        return count < 2 ? Double.NaN : m2 / (count - 1);
+    }
+}
@@ -0,0 +1,458 @@
+package fr.project.lib;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Binary columnar file holding a {@link DataFrame}.
+ * <p>The file starts with a 16 byte prefix: the magic number "RKDF", the
+ * format version and the offset of the footer. Each column follows as a
+ * contiguous little-endian block aligned on 8 bytes: an int, float or byte
+ * per row for Integer, Float and Boolean columns, epoch days for dates, and
+ * for text the byte length of each value (-1 for null) followed by the UTF-8
+ * bytes. Dictionary-encoded columns keep their codes and dictionary, and
+ * columns with null values are followed by their validity bitmap as longs.
+ * The footer holds the shape, the column labels and types, the block
+ * offsets, the statistics of numeric columns and the row labels when they
+ * are not the default positions. Version 1 files, written before bitmaps,
+ * are still read.
+ * <p>Blocks are read by mapping the file and bulk-copying each block into the
+ * column array, without parsing or type inference.
+ */
+final class ColumnarFile {
+    // "RKDF" read as a little-endian int
+    private static final int MAGIC = 0x46444B52;
+    private static final int VERSION = 2;
+
+    // Size of the prefix before the first block
+    private static final int PREFIX = 16;
+
+    // Bytes mapped or staged at once when copying a block
+    private static final int WINDOW = 1 << 24;
+
+    // Storage kind of a column block
+    private static final byte INT = 0;
+    private static final byte FLOAT = 1;
+    private static final byte BOOLEAN = 2;
+    private static final byte DATE = 3;
+    private static final byte STRING = 4;
+    private static final byte DICTIONARY = 5;
+    private static final byte OBJECT = 6;
+
+    private ColumnarFile() {
+    }
+
+    /**
+     * Writes a DataFrame to a file, replacing it if it exists
+     *
+     * @param df   DataFrame to write
+     * @param path Path to output file
+     * @throws IOException If file writing fails
+     */
+    static void write(final DataFrame df, final Path path) throws IOException {
+        write(df.col_label, df.columns, df.height,
+                defaultRowLabels(df.li_label, df.height) ? null : df.li_label, path);
+    }
+
+    /**
+     * Writes a single column, with the default row labels
+     *
+     * @param c    Column to write
+     * @param path Path to output file
+     * @throws IOException If file writing fails
+     */
+    static void writeColumn(final Column c, final Path path) throws IOException {
+        write(new String[] { "" }, new Column[] { c }, c.size(), null, path);
+    }
+
+    private static void write(final String[] colLabels, final Column[] columns, final int height,
+            final String[] rowLabels, final Path path) throws IOException {
+        try (FileChannel fc = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            final Output out = new Output(fc);
+            out.buf.putInt(MAGIC).putInt(VERSION).putLong(0);
+
+            final int width = columns.length;
+            final long[] offsets = new long[width];
+            final long[] dictionaries = new long[width];
+            final long[] bitmaps = new long[width];
+            final byte[] kinds = new byte[width];
+            for (int j = 0; j < width; j += 1) {
+                // Segmented columns are gathered one at a time and stored as usual
+                final Column c = columns[j] instanceof SegmentedColumn ? Column.concat(columns[j].type(), columns[j])
+                        : columns[j];
+                kinds[j] = kind(c);
+                if (c instanceof final DictionaryColumn dc) {
+                    dictionaries[j] = out.align();
+                    out.putStrings(dc.dictionary, dc.distinct);
+                }
+                offsets[j] = out.align();
+                if (c instanceof final IntColumn ic) {
+                    out.putInts(ic.values, height);
+                } else if (c instanceof final DateColumn dc) {
+                    out.putInts(dc.days, height);
+                } else if (c instanceof final DictionaryColumn dc) {
+                    out.putInts(dc.codes, height);
+                } else if (c instanceof final FloatColumn fl) {
+                    out.putFloats(fl.values, height);
+                } else if (c instanceof final BooleanColumn bc) {
+                    for (int i = 0; i < height; i += 1) {
+                        out.room(1).put((byte) (bc.values[i] ? 1 : 0));
+                    }
+                } else if (c instanceof final StringColumn sc) {
+                    out.putStrings(sc.values, height);
+                } else {
+                    final String[] text = new String[height];
+                    for (int i = 0; i < height; i += 1) {
+                        final Object v = c.get(i);
+                        text[i] = v == null ? null : v.toString();
+                    }
+                    out.putStrings(text, height);
+                }
+                bitmaps[j] = c.nulls == null ? -1 : out.align();
+                if (c.nulls != null) {
+                    out.putLongs(c.nulls, Column.words(height));
+                }
+            }
+            final long rowLabelsAt = rowLabels == null ? -1 : out.align();
+            if (rowLabels != null) {
+                out.putStrings(rowLabels, height);
+            }
+
+            // Footer
+            final long footer = out.align();
+            out.room(9).putInt(width).putInt(height).put((byte) (rowLabels != null ? 1 : 0));
+            if (rowLabels != null) {
+                out.room(8).putLong(rowLabelsAt);
+            }
+            for (int j = 0; j < width; j += 1) {
+                final Column c = columns[j];
+                out.putString(colLabels[j]);
+                out.room(25).put(kinds[j]).putLong(offsets[j]).putLong(dictionaries[j]).putLong(bitmaps[j]);
+                final ColumnStats stats = c.stats();
+                out.room(1).put((byte) (stats != null ? 1 : 0));
+                if (stats != null) {
+                    out.room(56).putLong(stats.count).putLong(stats.nulls).putDouble(stats.sum)
+                            .putDouble(stats.mean).putDouble(stats.m2).putDouble(stats.min).putDouble(stats.max);
+                }
+            }
+            out.flush();
+
+            final ByteBuffer prefix = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putLong(0, footer);
+            while (prefix.hasRemaining()) {
+                fc.write(prefix, 8 + prefix.position());
+            }
+        }
+    }
+
+    /**
+     * Reads a DataFrame from a file written by {@link #write}
+     *
+     * @param path Path to input file
+     * @return New DataFrame
+     * @throws IOException If file reading fails or the file is not in this format
+     */
+    static DataFrame read(final Path path) throws IOException {
+        final Contents c = readContents(path);
+        final DataFrame df = new DataFrame(c.labels(), c.columns(), c.height());
+        if (c.rowLabels() != null) {
+            df.li_label = c.rowLabels();
+        }
+        return df;
+    }
+
+    /**
+     * Reads the single column of a file written by {@link #writeColumn}
+     *
+     * @param path Path to input file
+     * @return New column
+     * @throws IOException If file reading fails or the file is not in this format
+     */
+    static Column readColumn(final Path path) throws IOException {
+        return readContents(path).columns()[0];
+    }
+
+    /**
+     * Parts of a DataFrame read from a file
+     */
+    private record Contents(String[] labels, Column[] columns, int height, String[] rowLabels) {
+    }
+
+    private static Contents readContents(final Path path) throws IOException {
+        try (FileChannel fc = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = fc.size();
+            if (size < PREFIX) {
+                throw new IOException("Not a columnar DataFrame file: " + path);
+            }
+            final ByteBuffer prefix = map(fc, 0, PREFIX);
+            if (prefix.getInt() != MAGIC) {
+                throw new IOException("Not a columnar DataFrame file: " + path);
+            }
+            final int version = prefix.getInt();
+            if (version < 1 || version > VERSION) {
+                throw new IOException("Unsupported columnar file version in " + path);
+            }
+            final long footer = prefix.getLong();
+
+            final ByteBuffer f = map(fc, footer, size - footer);
+            final int width = f.getInt();
+            final int height = f.getInt();
+            final long rowLabels = f.get() == 1 ? f.getLong() : -1;
+            final String[] labels = new String[width];
+            final Column[] cols = new Column[width];
+            for (int j = 0; j < width; j += 1) {
+                labels[j] = getString(f);
+                final byte kind = f.get();
+                final long offset = f.getLong();
+                final long dictionary = f.getLong();
+                final long bitmap = version >= 2 ? f.getLong() : -1;
+                cols[j] = switch (kind) {
+                    case INT -> new IntColumn(getInts(fc, offset, height));
+                    case FLOAT -> new FloatColumn(getFloats(fc, offset, height));
+                    case DATE -> new DateColumn(getInts(fc, offset, height));
+                    case BOOLEAN -> new BooleanColumn(getBooleans(fc, offset, height));
+                    case STRING -> new StringColumn(getStrings(fc, offset));
+                    case DICTIONARY -> new DictionaryColumn(getInts(fc, offset, height), getStrings(fc, dictionary));
+                    case OBJECT -> new ObjectColumn(objects(getStrings(fc, offset)));
+                    default -> throw new IOException("Unknown column kind " + kind + " in " + path);
+                };
+                if (bitmap != -1) {
+                    cols[j].nulls = getLongs(fc, bitmap, Column.words(height));
+                }
+                if (f.get() == 1) {
+                    final ColumnStats stats = new ColumnStats();
+                    stats.count = f.getLong();
+                    stats.nulls = f.getLong();
+                    stats.sum = f.getDouble();
+                    stats.mean = f.getDouble();
+                    stats.m2 = f.getDouble();
+                    stats.min = f.getDouble();
+                    stats.max = f.getDouble();
+                    cols[j].stats = stats;
+                }
+            }
+            return new Contents(labels, cols, height, rowLabels == -1 ? null : getStrings(fc, rowLabels));
+        }
+    }
+
+    private static Object[] objects(final String[] text) {
+        return Arrays.copyOf(text, text.length, Object[].class);
+    }
+
+    private static byte kind(final Column c) {
+        if (c instanceof IntColumn) {
+            return INT;
+        } else if (c instanceof FloatColumn) {
+            return FLOAT;
+        } else if (c instanceof BooleanColumn) {
+            return BOOLEAN;
+        } else if (c instanceof DateColumn) {
+            return DATE;
+        } else if (c instanceof StringColumn) {
+            return STRING;
+        } else if (c instanceof DictionaryColumn) {
+            return DICTIONARY;
+        }
+        return OBJECT;
+    }
+
+    /**
+     * Checks if row labels are the positions given by default
+     */
+    private static boolean defaultRowLabels(final String[] labels, final int n) {
+        for (int i = 0; i < n; i += 1) {
+            if (!Integer.toString(i).equals(labels[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static ByteBuffer map(final FileChannel fc, final long pos, final long len) throws IOException {
+        if (len > Integer.MAX_VALUE) {
+            throw new IOException("Columnar block too large to map: " + len + " bytes");
+        }
+        return fc.map(MapMode.READ_ONLY, pos, len).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static int[] getInts(final FileChannel fc, final long pos, final int n) throws IOException {
+        final int[] rv = new int[n];
+        for (int at = 0; at < n; at += WINDOW / 4) {
+            final int len = Math.min(WINDOW / 4, n - at);
+            map(fc, pos + 4L * at, 4L * len).asIntBuffer().get(rv, at, len);
+        }
+        return rv;
+    }
+
+    private static long[] getLongs(final FileChannel fc, final long pos, final int n) throws IOException {
+        final long[] rv = new long[n];
+        for (int at = 0; at < n; at += WINDOW / 8) {
+            final int len = Math.min(WINDOW / 8, n - at);
+            map(fc, pos + 8L * at, 8L * len).asLongBuffer().get(rv, at, len);
+        }
+        return rv;
+    }
+
+    private static float[] getFloats(final FileChannel fc, final long pos, final int n) throws IOException {
+        final float[] rv = new float[n];
+        for (int at = 0; at < n; at += WINDOW / 4) {
+            final int len = Math.min(WINDOW / 4, n - at);
+            map(fc, pos + 4L * at, 4L * len).asFloatBuffer().get(rv, at, len);
+        }
+        return rv;
+    }
+
+    private static boolean[] getBooleans(final FileChannel fc, final long pos, final int n) throws IOException {
+        final boolean[] rv = new boolean[n];
+        for (int at = 0; at < n; at += WINDOW) {
+            final int len = Math.min(WINDOW, n - at);
+            final ByteBuffer b = map(fc, pos + at, len);
+            for (int i = 0; i < len; i += 1) {
+                rv[at + i] = b.get(i) != 0;
+            }
+        }
+        return rv;
+    }
+
+    private static String[] getStrings(final FileChannel fc, final long pos) throws IOException {
+        final int n = map(fc, pos, 4).getInt();
+        final int[] lengths = getInts(fc, pos + 4, n);
+        long total = 0;
+        for (final int len : lengths) {
+            total += Math.max(0, len);
+        }
+        final byte[] bytes = new byte[(int) Math.min(total, Integer.MAX_VALUE)];
+        if (total > bytes.length) {
+            throw new IOException("Text column too large: " + total + " bytes");
+        }
+        map(fc, pos + 4 + 4L * n, total).get(bytes);
+        final String[] rv = new String[n];
+        int at = 0;
+        for (int i = 0; i < n; i += 1) {
+            if (lengths[i] >= 0) {
+                rv[i] = new String(bytes, at, lengths[i], UTF_8);
+                at += lengths[i];
+            }
+        }
+        return rv;
+    }
+
+    private static String getString(final ByteBuffer b) {
+        final byte[] bytes = new byte[b.getInt()];
+        b.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    /**
+     * Buffered writer of little-endian values to a channel
+     */
+    private static final class Output {
+        private final FileChannel fc;
+        final ByteBuffer buf = ByteBuffer.allocate(WINDOW).order(ByteOrder.LITTLE_ENDIAN);
+
+        // Bytes already handed to the channel
+        private long written;
+
+        Output(final FileChannel fc) {
+            this.fc = fc;
+        }
+
+        /**
+         * Makes room in the buffer
+         *
+         * @param bytes Number of bytes about to be put, at most the buffer size
+         * @return The buffer
+         */
+        ByteBuffer room(final int bytes) throws IOException {
+            if (buf.remaining() < bytes) {
+                flush();
+            }
+            return buf;
+        }
+
+        void flush() throws IOException {
+            buf.flip();
+            while (buf.hasRemaining()) {
+                written += fc.write(buf);
+            }
+            buf.clear();
+        }
+
+        /**
+         * Pads the output to a multiple of 8 bytes
+         *
+         * @return Offset of the next byte written
+         */
+        long align() throws IOException {
+            while ((written + buf.position()) % 8 != 0) {
+                room(1).put((byte) 0);
+            }
+            return written + buf.position();
+        }
+
+        void putInts(final int[] values, final int n) throws IOException {
+            for (int at = 0; at < n; ) {
+                final int len = Math.min(room(4).remaining() / 4, n - at);
+                buf.asIntBuffer().put(values, at, len);
+                buf.position(buf.position() + 4 * len);
+                at += len;
+            }
+        }
+
+        void putLongs(final long[] values, final int n) throws IOException {
+            for (int at = 0; at < n; ) {
+                final int len = Math.min(room(8).remaining() / 8, n - at);
+                buf.asLongBuffer().put(values, at, len);
+                buf.position(buf.position() + 8 * len);
+                at += len;
+            }
+        }
+
+        void putFloats(final float[] values, final int n) throws IOException {
+            for (int at = 0; at < n; ) {
+                final int len = Math.min(room(4).remaining() / 4, n - at);
+                buf.asFloatBuffer().put(values, at, len);
+                buf.position(buf.position() + 4 * len);
+                at += len;
+            }
+        }
+
+        void putStrings(final String[] values, final int n) throws IOException {
+            final byte[][] bytes = new byte[n][];
+            final int[] lengths = new int[n];
+            for (int i = 0; i < n; i += 1) {
+                bytes[i] = values[i] == null ? null : values[i].getBytes(UTF_8);
+                lengths[i] = bytes[i] == null ? -1 : bytes[i].length;
+            }
+            room(4).putInt(n);
+            putInts(lengths, n);
+            for (final byte[] b : bytes) {
+                if (b != null) {
+                    putBytes(b);
+                }
+            }
+        }
+
+        void putString(final String s) throws IOException {
+            final byte[] b = s.getBytes(UTF_8);
+            room(4).putInt(b.length);
+            putBytes(b);
+        }
+
+        private void putBytes(final byte[] b) throws IOException {
+            for (int at = 0; at < b.length; ) {
+                final int len = Math.min(room(1).remaining(), b.length - at);
+                buf.put(b, at, len);
+                at += len;
+            }
+        }
+    }
+}
@@ -1,21 +1,25 @@
 package fr.project.lib;
 
-import static java.lang.String.join;
 import static java.lang.System.arraycopy;
-import static java.util.Arrays.stream;
 
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
-import java.util.function.Function;
 import java.time.LocalDate;
 
+import fr.project.lib.utility.DelimitedTokenizer;
 import fr.project.lib.utility.TableInput;
 
 /**
@@ -24,8 +28,8 @@ import fr.project.lib.utility.TableInput;
  * operations.
  */
 public class DataFrame implements IDataFrame {
-    // Core data storage as a 2D array [rows][columns]
-    Object[][] data;
+    // Core data storage, one typed column per column label
+    Column[] columns;
 
     // Column names array
     String[] col_label;
@@ -33,33 +37,21 @@ public class DataFrame implements IDataFrame {
     // Row labels array
     String[] li_label;
 
-    // Data types for each column
-    public Class<?>[] col_types;
-
-    // Static map of parsers for converting strings to specific types
-    private static final Map<Class<?>, Function<String, Object>> parsers;
+    // Number of rows; li_label and the columns may have room for more,
+    // receiving the rows appended later
+    int height;
 
-    // Static list of type detection functions
-    private static final List<Function<String, Class<?>>> type_find;
+    // Set once li_label is referenced by several DataFrames, which must then
+    // copy it before appending
+    private boolean labelsShared;
 
-    // Static initialization block for parsers and type detectors
-    static {
-        parsers = new HashMap<>();
-        type_find = new ArrayList<>();
+    // Hash indexes of the labels, built on first lookup and dropped when
+    // the label arrays are replaced
+    private LabelIndex col_index;
+    private LabelIndex li_index;
 
-        // Register basic type parsers
-        parsers.put(String.class, (s) -> s);
-        parsers.put(Integer.class, Integer::parseInt);
-        parsers.put(Float.class, Float::parseFloat);
-        parsers.put(LocalDate.class, arg0 -> LocalDate.parse(arg0.replace('/', '-')));
-        parsers.put(Boolean.class, Boolean::parseBoolean);
-
-        // Register type detection functions (order matters - most specific first)
-        type_find.add(Utility::try_parse_int);
-        type_find.add(Utility::try_parse_float);
-        type_find.add(Utility::try_parse_bool);
-        type_find.add(Utility::try_parse_date);
-    }
+    // Data types for each column
+    public Class<?>[] col_types;
 
     /**
      * Constructs DataFrame from a file
@@ -68,7 +60,38 @@ public class DataFrame implements IDataFrame {
      * @throws IOException If file reading fails
      */
     public DataFrame(final String filename) throws IOException {
-        this(new FileInputStream(filename));
+        this(filename, InputFormat.CommaSeparatedValues);
+    }
+
+    /**
+     * Constructs DataFrame from a file with specified format.
+     * The file is memory-mapped and tokenized in place, without copying it
+     * to the heap first. Files above {@link Execution#getParallelLoadThreshold()}
+     * are split into chunks loaded on {@link Execution#getPool()}.
+     * 
+     * @param filename Path to input file
+     * @param _if      Format of the input data
+     * @throws IOException If file reading fails
+     */
+    public DataFrame(final String filename, final InputFormat _if) throws IOException {
+        this(readMapped(Path.of(filename), _if));
+    }
+
+    /**
+     * Reads a file through a memory mapping with the streaming tokenizer
+     * 
+     * @param path Path to input file
+     * @param _if  Format of the input data
+     * @return New DataFrame built from the file
+     * @throws IOException If file reading fails
+     */
+    private static DataFrame readMapped(final Path path, final InputFormat _if) throws IOException {
+        if (Execution.loadInParallel(Files.size(path))) {
+            return ParallelLoader.load(path, delimiter(_if));
+        }
+        final FrameBuilder fb = new FrameBuilder();
+        DelimitedTokenizer.tokenize(path, delimiter(_if), fb);
+        return fb.build();
     }
 
     /**
@@ -88,6 +111,28 @@ public class DataFrame implements IDataFrame {
         CommaSeparatedValues, TabSeparatedValues
     }
 
+    /**
+     * Kinds of join, see {@link #join(IDataFrame, JoinType, String...)}
+     */
+    public enum JoinType {
+        /** Only the rows whose key is in both frames */
+        Inner,
+        /** Every row of the left frame, matched or not */
+        Left,
+        /** Every row of both frames, matched or not */
+        Outer
+    }
+
+    /**
+     * Available parsers for delimited text
+     */
+    public enum Parser {
+        /** Hand-written single-pass tokenizer, the default */
+        Streaming,
+        /** ANTLR grammars, builds a full parse tree before conversion */
+        Antlr
+    }
+
     /**
      * Constructs DataFrame from input stream with specified format
      * 
@@ -96,57 +141,220 @@ public class DataFrame implements IDataFrame {
      * @throws IOException If stream reading fails
      */
     DataFrame(final InputStream is, final InputFormat _if) throws IOException {
-        this(switch (_if) {
-            case CommaSeparatedValues -> TableInput.parseCommaSeparatedValues(is);
-            case TabSeparatedValues -> TableInput.parseTabSeparatedValues(is);
+        this(is, _if, Parser.Streaming);
+    }
+
+    /**
+     * Constructs DataFrame from input stream with specified format and parser
+     * 
+     * @param is  Input stream containing data
+     * @param _if Format of the input data
+     * @param p   Parser used to read the stream
+     * @throws IOException If stream reading fails
+     */
+    DataFrame(final InputStream is, final InputFormat _if, final Parser p) throws IOException {
+        this(switch (p) {
+            case Streaming -> readStreaming(is, _if);
+            case Antlr -> new DataFrame(switch (_if) {
+                case CommaSeparatedValues -> TableInput.parseCommaSeparatedValues(is);
+                case TabSeparatedValues -> TableInput.parseTabSeparatedValues(is);
+            });
         });
     }
 
+    /**
+     * Reads an input stream with the streaming tokenizer
+     * 
+     * @param is  Input stream containing data
+     * @param _if Format of the input data
+     * @return New DataFrame built from the stream
+     * @throws IOException If stream reading fails
+     */
+    private static DataFrame readStreaming(final InputStream is, final InputFormat _if) throws IOException {
+        final FrameBuilder fb = new FrameBuilder();
+        DelimitedTokenizer.tokenize(is, delimiter(_if), fb);
+        return fb.build();
+    }
+
+    /**
+     * Gets the field separator of an input format
+     * 
+     * @param _if Format of the input data
+     * @return Delimiter byte
+     */
+    static byte delimiter(final InputFormat _if) {
+        return switch (_if) {
+            case CommaSeparatedValues -> DelimitedTokenizer.COMMA;
+            case TabSeparatedValues -> DelimitedTokenizer.TAB;
+        };
+    }
+
+    /**
+     * Constructs DataFrame sharing the storage of another one
+     * 
+     * @param other DataFrame to take the storage from
+     */
+    private DataFrame(final DataFrame other) {
+        columns = other.columns;
+        col_label = other.col_label;
+        li_label = other.li_label;
+        height = other.height;
+        col_types = other.col_types;
+    }
+
     /**
      * Constructs DataFrame from TableInput object
      * 
      * @param ti Pre-parsed table input structure
      */
     DataFrame(final TableInput ti) {
-        final int width = ti.w;
-        final int height = ti.h;
+        this(filled(ti).col_label, transpose(ti), ti.h);
+    }
 
-//        System.out.println(Arrays.toString(ti.col_label));
-        init(width, height, InitMode.PutDefault);
-        col_label = new String[width];
+    /**
+     * Fills the missing labels and cells of a TableInput
+     * 
+     * @param ti Pre-parsed table input structure
+     * @return ti, once filled
+     */
+    private static TableInput filled(final TableInput ti) {
         ti.fill();
-        arraycopy(ti.col_label, 0, col_label, 0, width);
+        return ti;
+    }
 
-        // Copy raw string data
-        for (int i = 0; i < height; i += 1) {
-            final String[] act = ti.data[i];
-            for (int j = 0; j < width; j += 1) {
-                data[i][j] = act[j];
+    /**
+     * Gets the raw values of a TableInput column by column
+     * 
+     * @param ti Pre-parsed table input structure
+     * @return One raw column per TableInput column
+     */
+    private static ColumnBuilder[] transpose(final TableInput ti) {
+        final ColumnBuilder[] raw = new ColumnBuilder[ti.w];
+        for (int j = 0; j < ti.w; j += 1) {
+            raw[j] = new ColumnBuilder();
+            for (int i = 0; i < ti.h; i += 1) {
+                raw[j].add(ti.data[i][j]);
             }
         }
+        return raw;
+    }
+
+    /**
+     * Constructs DataFrame from raw text columns
+     * 
+     * @param labels Column names
+     * @param raw    Raw text of each column
+     * @param height Number of rows
+     */
+    DataFrame(final String[] labels, final ColumnBuilder[] raw, final int height) {
+        this(labels, convert(raw, height), height);
+    }
+
+    /**
+     * Constructs DataFrame from typed columns with default row labels
+     * 
+     * @param labels Column names
+     * @param cols   Columns, all of the given height
+     * @param height Number of rows
+     */
+    DataFrame(final String[] labels, final Column[] cols, final int height) {
+        final int width = labels.length;
 
-        // Detect column types using first row
-        final Class<?>[] types = new Class[width];
+        init(width, height, InitMode.PutDefault);
+        arraycopy(labels, 0, col_label, 0, width);
+        arraycopy(cols, 0, columns, 0, width);
         for (int j = 0; j < width; j += 1) {
-            Class<?> tt = null;
-            for (final Function<String, Class<?>> fsc : type_find) {
-                tt = fsc.apply((String) data[0][j]);
-                if (tt != null) {
-                    break;
-                }
-            }
-            types[j] = tt != null ? tt : String.class;
+            col_types[j] = cols[j].type();
         }
+    }
 
-        // Convert all data to proper types
-        for (int i = 0; i < width; i++) {
-            final Class<?> c = types[i];
-            final Function<String, Object> col_parse = parsers.get(c);
-            for (int j = 0; j < height; j++) {
-                data[j][i] = col_parse.apply((String) data[j][i]);
+    /**
+     * Converts raw text columns to typed columns
+     * 
+     * @param raw    Raw text of each column
+     * @param height Number of rows
+     * @return One typed column per raw column
+     */
+    private static Column[] convert(final ColumnBuilder[] raw, final int height) {
+        final Column[] rv = new Column[raw.length];
+        for (int j = 0; j < raw.length; j++) {
+            final Column c = convert(raw[j], TypeInference.infer(raw[j]));
+            rv[j] = c != null ? c : convert(raw[j], TypeInference.infer(raw[j], 0));
+        }
+        return rv;
+    }
+
+    // Text columns are dictionary-encoded with at most one distinct value
+    // per DICTIONARY_RATIO rows, and never more than DICTIONARY_LIMIT values
+    private static final int DICTIONARY_RATIO = 16;
+    private static final int DICTIONARY_LIMIT = 1 << 16;
+
+    /**
+     * Converts a raw column to a typed column
+     * 
+     * @param raw  Raw text of the column
+     * @param type Type of the values
+     * @return New column of the given type, missing cells being null, null
+     *         if a value does not match the type because it was inferred
+     *         from a sample
+     */
+    static Column convert(final ColumnBuilder raw, final Class<?> type) {
+        final int height = raw.size();
+        final byte[] b = raw.bytes();
+        final long[] nulls = raw.nulls();
+        final Column rv;
+        if (type == Integer.class) {
+            final int[] values = new int[height];
+            for (int i = 0; i < height; i++) {
+                if (!raw.isMissing(i) && !FieldParsers.parseInt(b, raw.start(i), raw.end(i), values, i)) {
+                    return null;
+                }
+            }
+            rv = new IntColumn(values);
+        } else if (type == Float.class) {
+            final float[] values = new float[height];
+            for (int i = 0; i < height; i++) {
+                if (!raw.isMissing(i) && !FieldParsers.parseFloat(b, raw.start(i), raw.end(i), values, i)) {
+                    return null;
+                }
+            }
+            rv = new FloatColumn(values);
+        } else if (type == Boolean.class) {
+            final boolean[] values = new boolean[height];
+            for (int i = 0; i < height; i++) {
+                if (!raw.isMissing(i) && !FieldParsers.parseBool(b, raw.start(i), raw.end(i), values, i)) {
+                    return null;
+                }
+            }
+            rv = new BooleanColumn(values);
+        } else if (type == LocalDate.class) {
+            final int[] days = new int[height];
+            for (int i = 0; i < height; i++) {
+                if (!raw.isMissing(i) && !FieldParsers.parseDate(b, raw.start(i), raw.end(i), days, i)) {
+                    return null;
+                }
+            }
+            rv = new DateColumn(days);
+        } else {
+            // Dictionary-encode low-cardinality text columns only, where codes
+            // save most of the Strings
+            final DictionaryColumn encoded = DictionaryColumn.encode(raw,
+                    Math.min(height / DICTIONARY_RATIO, DICTIONARY_LIMIT));
+            if (encoded != null) {
+                rv = encoded;
+            } else {
+                final String[] values = new String[height];
+                for (int i = 0; i < height; i++) {
+                    values[i] = raw.isMissing(i) ? null : raw.text(i);
+                }
+                rv = new StringColumn(values);
             }
         }
-        col_types = types;
+        if (nulls != null) {
+            rv.nulls = nulls;
+            rv.hideNulls();
+        }
+        return rv;
     }
 
     /**
@@ -157,6 +365,26 @@ public class DataFrame implements IDataFrame {
      */
     DataFrame(final int width, final int height) {
         init(width, height, InitMode.PutDefault);
+        for (int j = 0; j < width; j += 1) {
+            columns[j] = Column.of(Object.class, height);
+            col_types[j] = Object.class;
+        }
+    }
+
+    /**
+     * Creates DataFrame with given row labels, columns are left to fill
+     * 
+     * @param width     Number of columns
+     * @param rowLabels Row labels, shared with the caller
+     * @param height    Number of rows
+     * @param rowIndex  Index of the row labels, null if not built
+     */
+    private DataFrame(final int width, final String[] rowLabels, final int height, final LabelIndex rowIndex) {
+        init(width, 0, null);
+        li_label = rowLabels;
+        labelsShared = true;
+        this.height = height;
+        li_index = rowIndex;
     }
 
     /**
@@ -174,9 +402,11 @@ public class DataFrame implements IDataFrame {
      * @param im     Initialization mode (blank or default labels)
      */
     private void init(final int width, final int height, final InitMode im) {
-        data = new Object[height][width];
+        columns = new Column[width];
+        col_types = new Class<?>[width];
         col_label = new String[width];
         li_label = new String[height];
+        this.height = height;
         if (im == null) {
         } else if (im == InitMode.PutBlank) {
             for (int i = 0; i < height; i += 1)
@@ -200,7 +430,7 @@ public class DataFrame implements IDataFrame {
      */
     @Override
     public boolean getEmpty() {
-        return data == null || data.length == 0 || data[0].length == 0;
+        return columns == null || columns.length == 0 || height == 0;
     }
 
     /**
@@ -213,7 +443,7 @@ public class DataFrame implements IDataFrame {
         if (this.getEmpty()) {
             return 0;
         }
-        return data.length * data[0].length;
+        return height * columns.length;
     }
 
     /**
@@ -226,14 +456,15 @@ public class DataFrame implements IDataFrame {
         if (this.getEmpty()) {
             return new int[] { 0, 0 };
         }
-        return new int[] { data.length, data[0].length };
+        return new int[] { height, columns.length };
     }
 
     /**
-     * Removes and returns a column from DataFrame
+     * Removes and returns a column from DataFrame.
+     * Only the column directory changes; the values are not copied.
      * 
      * @param s Name of column to remove
-     * @return List of values from the removed column
+     * @return Read-only list of the values of the removed column
      * @throws IllegalArgumentException if column not found or DataFrame is empty
      */
     @Override
@@ -241,53 +472,295 @@ public class DataFrame implements IDataFrame {
         if (this.getEmpty()) {
             throw new IllegalArgumentException("DataFrame is empty");
         }
+        final int temp = columnIndex(s);
+        final Column popped = columns[temp];
+        removeColumns(new int[] { temp });
+        return new AbstractList<Object>() {
+            @Override
+            public Object get(final int i) {
+                return popped.get(i);
+            }
+
+            @Override
+            public int size() {
+                return popped.size();
+            }
+        };
+    }
 
-        int temp = -1;
-        for (int i = 0; i < col_label.length; i++) {
-            if (col_label[i].equals(s)) {
-                temp = i;
+    @Override
+    public DataFrame drop(final String... cols) {
+        final int[] indices = new int[cols.length];
+        for (int k = 0; k < cols.length; k += 1) {
+            indices[k] = columnIndex(cols[k]);
+        }
+        final DataFrame rv = (DataFrame) createColumnSubset(indices);
+        removeColumns(indices);
+        return rv;
+    }
+
+    @Override
+    public void insert(final int position, final IDataFrame other) {
+        if (!(other instanceof final DataFrame df)) {
+            throw new IllegalArgumentException("Cannot insert columns of " + other.getClass().getSimpleName());
+        }
+        if (df.height != height) {
+            throw new IllegalArgumentException("Cannot insert columns of " + df.height + " rows into "
+                    + height + " rows");
+        }
+        insertColumns(position, df.col_label, df.columns);
+        // Shared from now on, copied on write by either frame
+        for (final Column c : df.columns) {
+            c.shared = true;
+        }
+    }
+
+    @Override
+    public void addColumn(final String label, final List<?> values) {
+        if (values.size() != height) {
+            throw new IllegalArgumentException("Cannot add a column of " + values.size() + " rows to "
+                    + height + " rows");
+        }
+        // Typed storage when every value has the same supported type
+        Class<?> type = null;
+        for (final Object v : values) {
+            if (v != null && type == null) {
+                type = v.getClass();
+            } else if (v != null && v.getClass() != type) {
+                type = Object.class;
                 break;
             }
         }
+        if (type != Integer.class && type != Float.class && type != Boolean.class
+                && type != LocalDate.class && type != String.class) {
+            type = Object.class;
+        }
+        final Column c = Column.of(type, values.size());
+        for (int i = 0; i < values.size(); i += 1) {
+            c.set(i, values.get(i));
+        }
+        insertColumns(columns.length, new String[] { label }, new Column[] { c });
+    }
 
-        if (temp == -1) {
-            throw new IllegalArgumentException("Column '" + s + "' not found");
+    /**
+     * Adds columns to the column directory
+     * 
+     * @param position Index of the first added column
+     * @param labels   Labels of the added columns, not in use yet
+     * @param cols     Added columns, of the row count of this DataFrame
+     * @throws IndexOutOfBoundsException if position is not within the columns
+     * @throws IllegalArgumentException if a label is already in use
+     */
+    private void insertColumns(final int position, final String[] labels, final Column[] cols) {
+        if (position < 0 || position > columns.length) {
+            throw new IndexOutOfBoundsException("Column position " + position + " out of bounds for "
+                    + columns.length + " columns");
+        }
+        for (final String label : labels) {
+            if (findColumnIndex(label) != -1) {
+                throw new IllegalArgumentException("Column '" + label + "' already exists");
+            }
         }
+        final int n = cols.length;
+        final int after = columns.length - position;
+        final Column[] newColumns = new Column[columns.length + n];
+        final String[] newLabels = new String[newColumns.length];
+        final Class<?>[] newTypes = new Class<?>[newColumns.length];
+        arraycopy(columns, 0, newColumns, 0, position);
+        arraycopy(col_label, 0, newLabels, 0, position);
+        arraycopy(col_types, 0, newTypes, 0, position);
+        for (int k = 0; k < n; k += 1) {
+            newColumns[position + k] = cols[k];
+            newLabels[position + k] = labels[k];
+            newTypes[position + k] = cols[k].type();
+        }
+        arraycopy(columns, position, newColumns, position + n, after);
+        arraycopy(col_label, position, newLabels, position + n, after);
+        arraycopy(col_types, position, newTypes, position + n, after);
+        columns = newColumns;
+        col_label = newLabels;
+        col_types = newTypes;
+    }
 
-        // Extract column values
-        final List<Object> colonne = new ArrayList<>();
-        final int numRows = data.length;
-        final int numCols = data[0].length;
+    @Override
+    public void append(final Object... row) {
+        if (row.length != columns.length) {
+            throw new IllegalArgumentException("Row of " + row.length + " values for " + columns.length + " columns");
+        }
+        for (int j = 0; j < row.length; j += 1) {
+            if (row[j] != null && col_types[j] != Object.class && !col_types[j].isInstance(row[j])) {
+                throw new IllegalArgumentException("Value " + row[j] + " is not of type "
+                        + col_types[j].getSimpleName() + " for column '" + col_label[j] + "'");
+            }
+        }
+        final int at = height;
+        growRows(1);
+        for (int j = 0; j < row.length; j += 1) {
+            columns[j].set(at, row[j]);
+        }
+    }
 
-        for (int i = 0; i < numRows; i++) {
-            colonne.add(data[i][temp]);
+    @Override
+    public void appendAll(final IDataFrame batch) {
+        // Rows appended to their own frame are copied first, as the columns grow
+        final DataFrame df = batch == this ? concat(this) : sameSchema(batch);
+        final int at = height;
+        growRows(df.height);
+        for (int j = 0; j < columns.length; j += 1) {
+            copyRows(df.columns[j], columns[j], at);
         }
+    }
 
-        // Create new data structure without the column
-        final Object[][] newData = new Object[numRows][numCols - 1];
-        for (int i = 0; i < numRows; i++) {
-            int newColIdx = 0;
-            for (int j = 0; j < numCols; j++) {
-                if (j != temp) {
-                    newData[i][newColIdx++] = data[i][j];
-                }
+    /**
+     * Concatenates DataFrames with the same labels and column types.
+     * Each column is built at once, bulk-copying the arrays of the frames.
+     * 
+     * @param frames DataFrames to concatenate, at least one
+     * @return New DataFrame with the rows of every frame, in order, and their
+     *         row labels
+     * @throws IllegalArgumentException if no frame is given or the frames
+     *         have different labels or types
+     */
+    public static DataFrame concat(final IDataFrame... frames) {
+        if (frames.length == 0) {
+            throw new IllegalArgumentException("No DataFrame to concatenate");
+        }
+        if (!(frames[0] instanceof final DataFrame first)) {
+            throw new IllegalArgumentException("Cannot concatenate rows of " + frames[0].getClass().getSimpleName());
+        }
+        final DataFrame[] parts = new DataFrame[frames.length];
+        long total = 0;
+        for (int k = 0; k < frames.length; k += 1) {
+            parts[k] = first.sameSchema(frames[k]);
+            total += parts[k].height;
+        }
+        if (total > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Concatenation of " + total + " rows is too large");
+        }
+        final Column[] cols = new Column[first.columns.length];
+        for (int j = 0; j < cols.length; j += 1) {
+            final Column[] pieces = new Column[parts.length];
+            for (int k = 0; k < parts.length; k += 1) {
+                pieces[k] = parts[k].columns[j];
             }
+            cols[j] = Column.concat(first.col_types[j], pieces);
+        }
+        final DataFrame rv = new DataFrame(first.col_label, cols, (int) total);
+        int at = 0;
+        for (final DataFrame part : parts) {
+            arraycopy(part.li_label, 0, rv.li_label, at, part.height);
+            at += part.height;
+        }
+        return rv;
+    }
+
+    /**
+     * Checks that another DataFrame has the labels and column types of this one
+     * 
+     * @param other DataFrame to check
+     * @return The other DataFrame
+     * @throws IllegalArgumentException if the labels or types differ
+     */
+    private DataFrame sameSchema(final IDataFrame other) {
+        if (!(other instanceof final DataFrame df)) {
+            throw new IllegalArgumentException("Cannot add rows of " + other.getClass().getSimpleName());
         }
+        if (!Arrays.equals(col_label, df.col_label) || !Arrays.equals(col_types, df.col_types)) {
+            throw new IllegalArgumentException("Columns " + Arrays.toString(df.col_label) + " of types "
+                    + Arrays.toString(df.col_types) + " do not match " + Arrays.toString(col_label) + " of types "
+                    + Arrays.toString(col_types));
+        }
+        return df;
+    }
 
-        // Update column labels
-        final String[] newColLabels = new String[col_label.length - 1];
-        int newIdx = 0;
-        for (int i = 0; i < col_label.length; i++) {
-            if (i != temp) {
-                newColLabels[newIdx++] = col_label[i];
+    /**
+     * Adds rows after the last one, labelled by their position. Columns and
+     * row labels grow geometrically, so appending a few rows at a time costs
+     * amortized constant time per row.
+     * 
+     * @param rows Number of rows to add
+     */
+    private void growRows(final int rows) {
+        final int n = height + rows;
+        // Keep the row index, if built, so lookups after appends do not rebuild it
+        LabelIndex index = li_index != null && li_index.covers(li_label) ? li_index : null;
+        if (labelsShared || li_label.length < n) {
+            li_label = Arrays.copyOf(li_label, li_label.length < n ? Column.capacity(li_label.length, n) : n);
+            if (index != null && labelsShared) {
+                index = index.copy(li_label);
+            } else if (index != null) {
+                index.rebind(li_label);
             }
+            labelsShared = false;
+        }
+        for (int i = height; i < n; i += 1) {
+            li_label[i] = Integer.toString(i);
         }
+        for (int j = 0; j < columns.length; j += 1) {
+            writable(j).extend(rows);
+        }
+        height = n;
+        if (index != null) {
+            index.add(n);
+        }
+        li_index = index;
+    }
 
-        // Modify current DataFrame
-        this.data = newData;
-        this.col_label = newColLabels;
+    /**
+     * Copies every value and null of a column into rows of another one
+     * 
+     * @param src  Column to copy
+     * @param dest Column receiving the values, of the same type
+     * @param at   Row of dest receiving the first value
+     */
+    private static void copyRows(final Column src, final Column dest, final int at) {
+        final int n = src.size();
+        final boolean bulk = src.getClass() == dest.getClass() && !(src instanceof SegmentedColumn)
+                || src instanceof DictionaryColumn && dest instanceof StringColumn;
+        if (!bulk) {
+            for (int i = 0; i < n; i += 1) {
+                dest.set(at + i, src.get(i));
+            }
+            return;
+        }
+        src.copyInto(dest, at);
+        if (src.nulls != null) {
+            for (int i = 0; i < n; i += 1) {
+                if (src.isNull(i)) {
+                    dest.setNull(at + i);
+                }
+            }
+        }
+    }
 
-        return colonne;
+    /**
+     * Removes columns from the column directory, leaving their values to
+     * any other DataFrame sharing them
+     * 
+     * @param indices Indices of the columns to remove
+     */
+    private void removeColumns(final int[] indices) {
+        final boolean[] removed = new boolean[columns.length];
+        for (final int j : indices) {
+            removed[j] = true;
+        }
+        int kept = 0;
+        for (final boolean r : removed) {
+            kept += r ? 0 : 1;
+        }
+        final Column[] newColumns = new Column[kept];
+        final String[] newLabels = new String[kept];
+        final Class<?>[] newTypes = new Class<?>[kept];
+        for (int j = 0, k = 0; j < columns.length; j += 1) {
+            if (!removed[j]) {
+                newColumns[k] = columns[j];
+                newLabels[k] = col_label[j];
+                newTypes[k++] = col_types[j];
+            }
+        }
+        columns = newColumns;
+        col_label = newLabels;
+        col_types = newTypes;
     }
 
     /**
@@ -368,36 +841,51 @@ public class DataFrame implements IDataFrame {
      * @return Column index or -1 if not found
      */
     private int findColumnIndex(final String colName) {
-        for (int i = 0; i < col_label.length; i++) {
-            if (col_label[i].equals(colName)) {
-                return i;
-            }
+        LabelIndex index = col_index;
+        if (index == null || !index.covers(col_label)) {
+            col_index = index = new LabelIndex(col_label);
+        }
+        return index.find(colName);
+    }
+
+    /**
+     * Finds index of row by label
+     * 
+     * @param rowLabel Label of row to find
+     * @return Row index or -1 if not found
+     */
+    private int findRowIndex(final String rowLabel) {
+        LabelIndex index = li_index;
+        if (index == null || !index.covers(li_label)) {
+            // Only the first height labels, the array may have room for appended rows
+            li_index = index = new LabelIndex(li_label, height);
         }
-        return -1;
+        return index.find(rowLabel);
     }
 
     /**
-     * Creates new DataFrame with subset of columns
+     * Creates new DataFrame with subset of columns.
+     * The subset is a view: it shares the columns and row labels of this
+     * DataFrame instead of copying them.
      * 
      * @param colIndices Indices of columns to include
      * @return New DataFrame with specified columns
      */
     private IDataFrame createColumnSubset(final int[] colIndices) {
-        final DataFrame subset = new DataFrame(colIndices.length, data.length);
+        // Share row labels, with their index if it was built
+        final DataFrame subset = new DataFrame(colIndices.length, li_label, height, li_index);
+        labelsShared = true;
 
         // Copy column labels
         for (int j = 0; j < colIndices.length; j++) {
             subset.col_label[j] = this.col_label[colIndices[j]];
         }
 
-        // Copy row labels
-        System.arraycopy(this.li_label, 0, subset.li_label, 0, data.length);
-
-        // Copy data cells
-        for (int i = 0; i < data.length; i++) {
-            for (int j = 0; j < colIndices.length; j++) {
-                subset.data[i][j] = this.data[i][colIndices[j]];
-            }
+        // Share data columns, copied on write by either side
+        for (int j = 0; j < colIndices.length; j++) {
+            final Column c = this.columns[colIndices[j]];
+            c.shared = true;
+            subset.columns[j] = c;
         }
 
         // Copy column type information
@@ -409,6 +897,115 @@ public class DataFrame implements IDataFrame {
         return subset;
     }
 
+    /**
+     * Finds the index of a column that must exist
+     * 
+     * @param column Name of the column
+     * @return Index of the column
+     * @throws IllegalArgumentException if the column doesn't exist
+     */
+    int columnIndex(final String column) {
+        final int j = findColumnIndex(column);
+        if (j == -1) {
+            throw new IllegalArgumentException("Column '" + column + "' not found");
+        }
+        return j;
+    }
+
+    @Override
+    public Where where(final String column) {
+        return new Where(columns[columnIndex(column)], column);
+    }
+
+    @Override
+    public GroupBy groupBy(final String... keys) {
+        final int[] indices = new int[keys.length];
+        for (int k = 0; k < keys.length; k++) {
+            indices[k] = columnIndex(keys[k]);
+        }
+        return new GroupBy(this, indices);
+    }
+
+    @Override
+    public DataFrame join(final IDataFrame other, final JoinType how, final String... on) {
+        if (!(other instanceof final DataFrame right)) {
+            throw new IllegalArgumentException("Cannot join with a " + other.getClass().getSimpleName());
+        }
+        return Join.join(this, right, how, on);
+    }
+
+    @Override
+    public DataFrame filter(final RowMask mask) {
+        if (mask.size() != height) {
+            throw new IllegalArgumentException("Mask of " + mask.size() + " rows for " + height + " rows");
+        }
+        return take(mask.rows());
+    }
+
+    @Override
+    public DataFrame sortBy(final String... cols) {
+        final boolean[] ascending = new boolean[cols.length];
+        Arrays.fill(ascending, true);
+        return sortBy(cols, ascending);
+    }
+
+    @Override
+    public DataFrame sortBy(final String[] cols, final boolean[] ascending) {
+        if (cols.length != ascending.length) {
+            throw new IllegalArgumentException(cols.length + " columns for " + ascending.length + " directions");
+        }
+        final Column[] keys = new Column[cols.length];
+        for (int k = 0; k < cols.length; k++) {
+            keys[k] = columns[columnIndex(cols[k])];
+        }
+        return take(Sorter.order(keys, ascending, height));
+    }
+
+    /**
+     * Creates a DataFrame holding some rows of this one
+     * 
+     * @param rows Indices of the rows, in the order of the result
+     * @return New DataFrame with the same columns
+     */
+    DataFrame take(final int[] rows) {
+        final Column[] cols = new Column[columns.length];
+        for (int j = 0; j < cols.length; j++) {
+            cols[j] = columns[j].take(rows);
+        }
+        final DataFrame rv = new DataFrame(col_label, cols, rows.length);
+        for (int i = 0; i < rows.length; i++) {
+            rv.li_label[i] = li_label[rows[i]];
+        }
+        rv.col_types = col_types.clone();
+        return rv;
+    }
+
+    /**
+     * Gets a column whose values can be changed, copying it first if it is
+     * shared with another DataFrame and dropping its cached statistics
+     * 
+     * @param j Index of the column
+     * @return Column owned by this DataFrame only
+     */
+    Column writable(final int j) {
+        if (columns[j].shared) {
+            columns[j] = columns[j].copy();
+        }
+        columns[j].stats = null;
+        return columns[j];
+    }
+
+    /**
+     * Replaces a single element
+     * 
+     * @param row   Index of the row
+     * @param col   Index of the column
+     * @param value New value, must match the column type
+     */
+    void set(final int row, final int col, final Object value) {
+        writable(col).set(row, value);
+    }
+
     /**
      * Single element/row/column access
      */
@@ -419,10 +1016,10 @@ public class DataFrame implements IDataFrame {
         }
 
         if (rowSpec == null) {
-            final int colIdx = resolveColumnIndex(colSpec);
-            final Object[] column = new Object[data.length];
-            for (int i = 0; i < data.length; i++) {
-                column[i] = data[i][colIdx];
+            final Column col = columns[resolveColumnIndex(colSpec)];
+            final Object[] column = new Object[col.size()];
+            for (int i = 0; i < column.length; i++) {
+                column[i] = col.get(i);
             }
             return column;
         }
@@ -430,11 +1027,15 @@ public class DataFrame implements IDataFrame {
         // Handle full row access
         if (colSpec == null) {
             final int rowIdx = resolveRowIndex(rowSpec);
-            return data[rowIdx].clone(); // Defensive copy
+            final Object[] row = new Object[columns.length];
+            for (int j = 0; j < row.length; j++) {
+                row[j] = columns[j].get(rowIdx);
+            }
+            return row;
         }
 
         // Single element access
-        return data[resolveRowIndex(rowSpec)][resolveColumnIndex(colSpec)];
+        return columns[resolveColumnIndex(colSpec)].get(resolveRowIndex(rowSpec));
     }
 
     // Helper methods for single element access
@@ -442,18 +1043,17 @@ public class DataFrame implements IDataFrame {
         if (rowSpec == null) {
             throw new IllegalArgumentException("Row specifier cannot be null");
         } else if (rowSpec instanceof final Integer idx) {
-            if (idx < 0 || idx >= data.length) {
+            if (idx < 0 || idx >= height) {
                 throw new IndexOutOfBoundsException("Row index out of bounds");
             }
             return idx;
-        } else if (rowSpec instanceof String) {
+        } else if (rowSpec instanceof final String label) {
             // Find row by label
-            for (int i = 0; i < li_label.length; i++) {
-                if (li_label[i].equals(rowSpec)) {
-                    return i;
-                }
+            final int idx = findRowIndex(label);
+            if (idx == -1) {
+                throw new IllegalArgumentException("Row label not found");
             }
-            throw new IllegalArgumentException("Row label not found");
+            return idx;
         } else {
             throw new IllegalArgumentException("Invalid row specifier type");
         }
@@ -490,10 +1090,10 @@ public class DataFrame implements IDataFrame {
             sb.append("\t").append("\t").append(hd);
         }
         sb.append("\n");
-        for (int i = 0; i < data.length; i++) {
+        for (int i = 0; i < height; i++) {
             sb.append(li_label[i]);
-            for (int j = 0; j < data[i].length; j += 1) {
-                sb.append("\t").append("\t").append(data[i][j].toString());
+            for (int j = 0; j < columns.length; j += 1) {
+                sb.append("\t").append("\t").append(columns[j].get(i));
             }
             sb.append("\n");
         }
@@ -505,137 +1105,319 @@ public class DataFrame implements IDataFrame {
     }
 
     public float Mean(final String col){
-        int temp = -1;
-        for (int i = 0; i < col_label.length; i++) {
-            if (col_label[i].equals(col)) {
-                temp = i;
-                break;
-            }
-        }
-        switch(col_types[temp].getSimpleName()) {
-            case "Float":{
-                    float sum=0;
-                for (int i =0; i<data.length;i++){
-                
-                        sum = sum+(float)data[i][temp];
-                    
-                }
-                return sum/data.length;
-            }
-            case "Integer":
-                int sum=0;
-                for (int i =0; i<data.length;i++){
-                    
-                        sum = sum+(int)data[i][temp];
-                    
-                }
-                return (float) sum/data.length;
-            
-            default:
-                throw new IllegalArgumentException("Column is the wrong type : " + col_types[temp]);
-        }
-
+        return (float) numericStats(col).mean;
     }
 
     public float Max(final String col){
-        int temp = -1;
-        for (int i = 0; i < col_label.length; i++) {
-            if (col_label[i].equals(col)) {
-                temp = i;
-                break;
-            }
-        }
+        return (float) numericStats(col).max;
+    }
+
+    public float Min(final String col){
+        return (float) numericStats(col).min;
+    }
+
+    /**
+     * Gets the cached statistics of a numeric column
+     * 
+     * @param col Name of the column
+     * @return Statistics of the column, with at least one value
+     */
+    private ColumnStats numericStats(final String col) {
+        final int temp = findColumnIndex(col);
 
         if (temp == -1) {
             throw new IllegalArgumentException("Column '" + col + "' not found");
         }
-        switch(col_types[temp].getSimpleName()) {
-            case "Float":{
-                    float sum=(float)data[0][temp];
-                for (int i =0; i<data.length;i++){
-                    if (sum<(float)data[i][temp]){
-                        sum = (float)data[i][temp];
-                    }
-                }
-                return sum;
-            }
-            case "Integer":
-                int sum=(int)data[0][temp];
-                for (int i =0; i<data.length;i++){
-                    if (sum<(int)data[i][temp]){
-                        sum = (int)data[i][temp];
-                    }
-                }
-                return sum;
-            
-            default:
-                throw new IllegalArgumentException("Column is the wrong type : " + col_types[temp]);
+        final ColumnStats stats = columns[temp].stats();
+        if (stats == null) {
+            throw new IllegalArgumentException("Column is the wrong type : " + col_types[temp]);
+        } else if (stats.count == 0) {
+            throw new IllegalArgumentException("Column '" + col + "' has no values");
         }
-
-        
+        return stats;
     }
 
+    // Row labels of the DataFrame returned by describe()
+    private static final String[] DESCRIBE_LABELS = {
+        "count", "null", "sum", "mean", "variance", "min", "max"
+    };
 
-    public float Min(final String col){
-        int temp = -1;
-        for (int i = 0; i < col_label.length; i++) {
-            if (col_label[i].equals(col)) {
-                temp = i;
-                break;
+    @Override
+    public DataFrame describe() {
+        final List<String> labels = new ArrayList<>();
+        final List<Column> cols = new ArrayList<>();
+        for (int j = 0; j < columns.length; j++) {
+            final ColumnStats stats = columns[j].stats();
+            if (stats != null) {
+                labels.add(col_label[j]);
+                cols.add(new FloatColumn(new float[]{
+                    stats.count, stats.nulls, (float) stats.sum,
+                    (float) (stats.count == 0 ? Double.NaN : stats.mean),
+                    (float) stats.variance(), (float) stats.min, (float) stats.max
+                }));
             }
         }
+        final DataFrame rv = new DataFrame(labels.toArray(new String[0]), cols.toArray(new Column[0]),
+                DESCRIBE_LABELS.length);
+        rv.li_label = DESCRIBE_LABELS.clone();
+        return rv;
+    }
 
-        if (temp == -1) {
-            throw new IllegalArgumentException("Column '" + col + "' not found");
+    @Override
+    public int getNDim() {
+        return 2;
+    }
+
+    @Override
+    public String toCSV() {
+        final StringWriter w = new StringWriter();
+        try {
+            write(w, ',');
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
         }
-        switch(col_types[temp].getSimpleName()) {
-            case "Float":{
-                    float sum=(float)data[0][temp];
-                for (int i =0; i<data.length;i++){
-                    if (sum>(float)data[i][temp]){
-                        sum = (float)data[i][temp];
-                    }
+        return w.toString();
+    }
+
+    @Override
+    public void writeCSV(final Writer w) throws IOException {
+        write(w, ',');
+    }
+
+    @Override
+    public void writeCSV(final OutputStream out) throws IOException {
+        write(new OutputStreamWriter(out, StandardCharsets.UTF_8), ',');
+    }
+
+    @Override
+    public void writeTSV(final Writer w) throws IOException {
+        write(w, '\t');
+    }
+
+    @Override
+    public void writeTSV(final OutputStream out) throws IOException {
+        write(new OutputStreamWriter(out, StandardCharsets.UTF_8), '\t');
+    }
+
+    @Override
+    public void save(final String filename) throws IOException {
+        ColumnarFile.write(this, Path.of(filename));
+    }
+
+    @Override
+    public DataFrame segmented(final int segmentRows, final SegmentCache cache) {
+        final Column[] cols = new Column[columns.length];
+        for (int j = 0; j < cols.length; j += 1) {
+            cols[j] = SegmentedColumn.of(columns[j], segmentRows, cache);
+        }
+        final DataFrame rv = new DataFrame(col_label, cols, height);
+        rv.li_label = li_label;
+        rv.li_index = li_index;
+        rv.labelsShared = labelsShared = true;
+        return rv;
+    }
+
+    /**
+     * Reads every batch into an out-of-core DataFrame, each batch becoming
+     * one segment of each column, so the data never has to fit in memory at
+     * once. Row labels are still held in memory.
+     * 
+     * @param batches Reader of the batches, see {@link #batches(String, int)}
+     * @param cache   Cache holding the segments, see {@link SegmentCache}
+     * @return New DataFrame with the labels and types of the batches
+     * @throws java.io.UncheckedIOException If reading fails
+     */
+    public static DataFrame segmented(final BatchReader batches, final SegmentCache cache) {
+        final String[] labels = batches.labels();
+        final Class<?>[] types = batches.types();
+        final SegmentedColumn[] cols = new SegmentedColumn[labels.length];
+        int height = 0;
+        while (batches.hasNext()) {
+            final DataFrame batch = batches.next();
+            if (height == 0) {
+                for (int j = 0; j < cols.length; j += 1) {
+                    cols[j] = new SegmentedColumn(types[j], batch.height, cache);
                 }
-                return sum;
             }
-            case "Integer":
-                int sum=(int)data[0][temp];
-                for (int i =0; i<data.length;i++){
-                    if (sum>(int)data[i][temp]){
-                        sum = (int)data[i][temp];
-                    }
-                }
-                return sum;
-            
-            default:
-                throw new IllegalArgumentException("Column is the wrong type : " + col_types[temp]);
+            for (int j = 0; j < cols.length; j += 1) {
+                cols[j].append(batch.columns[j]);
+            }
+            height += batch.height;
         }
+        if (height == 0) {
+            for (int j = 0; j < cols.length; j += 1) {
+                cols[j] = new SegmentedColumn(types[j], 1, cache);
+            }
+        }
+        return new DataFrame(labels, cols, height);
     }
 
-    @Override
-    public int getNDim() {
-        return 2;
+    /**
+     * Starts a lazy read of a CSV file, see {@link Scan}
+     * 
+     * @param filename Path to input file
+     * @return Scan reading the whole file until narrowed
+     */
+    public static Scan scan(final String filename) {
+        return scan(filename, InputFormat.CommaSeparatedValues);
     }
 
-    private static String formatToCSV(final String input) {
-        if (input.contains(",")) {
-            return '"' + input.replace("\"", "\"\"") + '"';
-        } else
-            return input;
+    /**
+     * Starts a lazy read of a delimited file, see {@link Scan}
+     * 
+     * @param filename Path to input file
+     * @param _if      Input format
+     * @return Scan reading the whole file until narrowed
+     */
+    public static Scan scan(final String filename, final InputFormat _if) {
+        return new Scan(Path.of(filename), delimiter(_if));
     }
 
-    private static String makeCSVLine(final String...input) {
-        return makeCSVLine(Arrays.asList(input));
+    /**
+     * Reads a CSV file as batches of rows, see {@link BatchReader}
+     * 
+     * @param filename  Path to input file
+     * @param batchRows Number of rows of each batch, the last one may be shorter
+     * @return Reader of the batches, to be closed
+     * @throws IOException If the file cannot be opened
+     */
+    public static BatchReader batches(final String filename, final int batchRows) throws IOException {
+        return batches(filename, InputFormat.CommaSeparatedValues, batchRows);
     }
 
-    private static String makeCSVLine(final List<String> input) {
-        return join(",", input.stream().map(DataFrame::formatToCSV).toList());
+    /**
+     * Reads a delimited file as batches of rows, see {@link BatchReader}
+     * 
+     * @param filename  Path to input file
+     * @param _if       Input format
+     * @param batchRows Number of rows of each batch, the last one may be shorter
+     * @return Reader of the batches, to be closed
+     * @throws IOException If the file cannot be opened
+     */
+    public static BatchReader batches(final String filename, final InputFormat _if, final int batchRows)
+            throws IOException {
+        return batches(Files.newInputStream(Path.of(filename)), _if, batchRows);
     }
 
-    @Override
-    public String toCSV() {
-      return makeCSVLine(col_label) + "\n" + join("\n", stream(data).map(
-        l -> makeCSVLine(stream(l).map(Object::toString).toList())
-      ).toList());
+    /**
+     * Reads a delimited input stream as batches of rows, see {@link BatchReader}
+     * 
+     * @param is        Input stream, closed with the reader
+     * @param _if       Input format
+     * @param batchRows Number of rows of each batch, the last one may be shorter
+     * @return Reader of the batches, to be closed
+     */
+    public static BatchReader batches(final InputStream is, final InputFormat _if, final int batchRows) {
+        return new BatchReader(is, delimiter(_if), batchRows);
+    }
+
+    /**
+     * Loads a DataFrame saved with {@link #save(String)}.
+     * Columns are copied from the mapped file as they are stored, without
+     * parsing or type inference.
+     * 
+     * @param filename Path to input file
+     * @return New DataFrame with the saved labels, types and values
+     * @throws IOException If file reading fails or the file was not saved by
+     *                     {@link #save(String)}
+     */
+    public static DataFrame load(final String filename) throws IOException {
+        return ColumnarFile.read(Path.of(filename));
+    }
+
+    // Characters buffered before being handed to the writer
+    private static final int WRITE_CHUNK = 1 << 16;
+
+    /**
+     * Writes the header and every row as delimited text.
+     * Rows are formatted into a reused buffer flushed to the writer in
+     * chunks, so no String is created per value or per line.
+     * 
+     * @param w         Writer receiving the text, flushed but not closed
+     * @param delimiter Field separator
+     * @throws IOException If writing fails
+     */
+    private void write(final Writer w, final char delimiter) throws IOException {
+        final StringBuilder sb = new StringBuilder(WRITE_CHUNK + 1024);
+        final char[] chunk = new char[WRITE_CHUNK];
+        for (int j = 0; j < col_label.length; j++) {
+            if (j > 0) {
+                sb.append(delimiter);
+            }
+            sb.append(col_label[j]);
+            quoteIfNeeded(sb, sb.length() - col_label[j].length(), delimiter);
+        }
+        sb.append('\n');
+        for (int i = 0; i < height; i++) {
+            if (i > 0) {
+                sb.append('\n');
+            }
+            for (int j = 0; j < columns.length; j++) {
+                if (j > 0) {
+                    sb.append(delimiter);
+                }
+                // Null values are left empty, empty text is quoted to tell them apart
+                if (!columns[j].isNull(i)) {
+                    final int start = sb.length();
+                    columns[j].appendTo(i, sb);
+                    if (sb.length() == start) {
+                        sb.append("\"\"");
+                    } else {
+                        quoteIfNeeded(sb, start, delimiter);
+                    }
+                }
+            }
+            if (sb.length() >= WRITE_CHUNK) {
+                flush(sb, chunk, w);
+            }
+        }
+        flush(sb, chunk, w);
+        w.flush();
+    }
+
+    /**
+     * Quotes the last field of a buffer if it holds the delimiter, a quote or
+     * a line break, doubling the quotes inside it
+     * 
+     * @param sb        Buffer ending with the field
+     * @param start     Offset of the field in the buffer
+     * @param delimiter Field separator
+     */
+    private static void quoteIfNeeded(final StringBuilder sb, final int start, final char delimiter) {
+        int quotes = 0;
+        boolean special = false;
+        for (int k = start; k < sb.length(); k++) {
+            final char c = sb.charAt(k);
+            if (c == '"') {
+                quotes += 1;
+            } else if (c == delimiter || c == '\n' || c == '\r') {
+                special = true;
+            }
+        }
+        if (!special && quotes == 0) {
+            return;
+        }
+        // Shift the field right, doubling its quotes, then wrap it
+        int src = sb.length() - 1;
+        sb.setLength(sb.length() + quotes + 2);
+        int dst = sb.length() - 1;
+        sb.setCharAt(dst--, '"');
+        for (; src >= start; src--) {
+            final char c = sb.charAt(src);
+            sb.setCharAt(dst--, c);
+            if (c == '"') {
+                sb.setCharAt(dst--, '"');
+            }
+        }
+        sb.setCharAt(dst, '"');
+    }
+
+    private static void flush(final StringBuilder sb, final char[] chunk, final Writer w) throws IOException {
+        for (int at = 0; at < sb.length(); at += chunk.length) {
+            final int len = Math.min(chunk.length, sb.length() - at);
+            sb.getChars(at, at + len, chunk, 0);
+            w.write(chunk, 0, len);
+        }
+        sb.setLength(0);
     }
 }
@@ -0,0 +1,84 @@
+package fr.project.lib;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Column of LocalDate values stored as epoch days in an {@code int[]}.
+ * {@link LocalDate} objects are only created when a value is read.
+ */
+final class DateColumn extends Column {
+    // Days since 1970-01-01 for each row
+    int[] days;
+
+    // Number of rows, the array may have room for more
+    int size;
+
+    DateColumn(final int[] days) {
+        this.days = days;
+        this.size = days.length;
+    }
+
+    @Override
+    int size() {
+        return size;
+    }
+
+    @Override
+    Class<?> type() {
+        return LocalDate.class;
+    }
+
+    @Override
+    Object value(final int row) {
+        return LocalDate.ofEpochDay(days[row]);
+    }
+
+    @Override
+    void put(final int row, final Object value) {
+        days[row] = (int) ((LocalDate) value).toEpochDay();
+    }
+
+    @Override
+    void appendTo(final int row, final StringBuilder sb) {
+        final LocalDate d = LocalDate.ofEpochDay(days[row]);
+        if (d.getYear() < 0 || d.getYear() > 9999) {
+            sb.append(d);
+            return;
+        }
+        final int y = d.getYear();
+        final int m = d.getMonthValue();
+        final int day = d.getDayOfMonth();
+        sb.append((char) ('0' + y / 1000)).append((char) ('0' + y / 100 % 10))
+                .append((char) ('0' + y / 10 % 10)).append((char) ('0' + y % 10))
+                .append('-').append((char) ('0' + m / 10)).append((char) ('0' + m % 10))
+                .append('-').append((char) ('0' + day / 10)).append((char) ('0' + day % 10));
+    }
+
+    @Override
+    void copyInto(final Column dest, final int at) {
+        System.arraycopy(days, 0, ((DateColumn) dest).days, at, size);
+    }
+
+    @Override
+    Column takeValues(final int[] rows) {
+        final int[] rv = new int[rows.length];
+        for (int i = 0; i < rows.length; i += 1) {
+            rv[i] = days[rows[i]];
+        }
+        return new DateColumn(rv);
+    }
+
+    @Override
+    void resize(final int rows) {
+        if (rows > days.length) {
+            days = Arrays.copyOf(days, capacity(days.length, rows));
+        }
+        size = rows;
+    }
+
+    @Override
+    Column copyValues() {
+        return new DateColumn(Arrays.copyOf(days, size));
+    }
+}
@@ -0,0 +1,252 @@
+package fr.project.lib;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Column of String values stored as an {@code int[]} of codes into a
+ * dictionary of distinct values.
+ * Used for low-cardinality text columns, where it keeps a single String per
+ * distinct value and lets equality tests compare codes.
+ */
+final class DictionaryColumn extends Column {
+    // Code of the value of each row
+    int[] codes;
+
+    // Number of rows, the array may have room for more
+    int size;
+
+    // Distinct values, indexed by code; the array may have room for more
+    String[] dictionary;
+    int distinct;
+
+    // Set once the dictionary array is referenced by several columns, which
+    // must then copy it before adding a value
+    private boolean dictionaryShared;
+
+    // Code of each distinct value, built on first lookup
+    private Map<String, Integer> index;
+
+    DictionaryColumn(final int[] codes, final String[] dictionary) {
+        this.codes = codes;
+        this.size = codes.length;
+        this.dictionary = dictionary;
+        this.distinct = dictionary.length;
+    }
+
+    @Override
+    int size() {
+        return size;
+    }
+
+    @Override
+    Class<?> type() {
+        return String.class;
+    }
+
+    @Override
+    Object value(final int row) {
+        return dictionary[codes[row]];
+    }
+
+    @Override
+    void put(final int row, final Object value) {
+        codes[row] = codeOrAdd((String) value);
+    }
+
+    /**
+     * Gets the code of a value, adding the value to the dictionary if needed.
+     * The dictionary grows geometrically, so adding values one at a time
+     * costs amortized constant time per value.
+     *
+     * @param value Value to look for
+     * @return Code of the value
+     */
+    private int codeOrAdd(final String value) {
+        int code = code(value);
+        if (code == -1) {
+            code = distinct;
+            if (dictionaryShared || code == dictionary.length) {
+                dictionary = Arrays.copyOf(dictionary, capacity(code, code + 1));
+                dictionaryShared = false;
+            }
+            dictionary[code] = value;
+            distinct += 1;
+            index.put(value, code);
+        }
+        return code;
+    }
+
+    /**
+     * Gets the code of a value
+     *
+     * @param value Value to look for
+     * @return Code of the value, -1 if it is not in the dictionary
+     */
+    int code(final String value) {
+        if (index == null) {
+            index = new HashMap<>();
+            for (int c = 0; c < distinct; c += 1) {
+                index.putIfAbsent(dictionary[c], c);
+            }
+        }
+        return index.getOrDefault(value, -1);
+    }
+
+    @Override
+    void copyInto(final Column dest, final int at) {
+        if (dest instanceof final DictionaryColumn dc) {
+            // Translate the codes once per distinct value, then copy them
+            final int[] remap = new int[distinct];
+            for (int c = 0; c < distinct; c += 1) {
+                remap[c] = dc.codeOrAdd(dictionary[c]);
+            }
+            for (int i = 0; i < size; i += 1) {
+                // Null rows may hold any code, they are left to the null bitmap
+                dc.codes[at + i] = nulls != null && isNull(i) ? 0 : remap[codes[i]];
+            }
+        } else {
+            final String[] values = ((StringColumn) dest).values;
+            for (int i = 0; i < size; i += 1) {
+                values[at + i] = dictionary[codes[i]];
+            }
+        }
+    }
+
+    @Override
+    Column takeValues(final int[] rows) {
+        final int[] rv = new int[rows.length];
+        for (int i = 0; i < rows.length; i += 1) {
+            rv[i] = codes[rows[i]];
+        }
+        // The dictionary is shared, either side copying it before adding a value
+        final DictionaryColumn taken = new DictionaryColumn(rv, dictionary);
+        taken.distinct = distinct;
+        taken.dictionaryShared = dictionaryShared = true;
+        return taken;
+    }
+
+    @Override
+    void resize(final int rows) {
+        if (rows > codes.length) {
+            codes = Arrays.copyOf(codes, capacity(codes.length, rows));
+        }
+        size = rows;
+    }
+
+    @Override
+    Column copyValues() {
+        return new DictionaryColumn(Arrays.copyOf(codes, size), Arrays.copyOf(dictionary, distinct));
+    }
+
+    /**
+     * Concatenates dictionary columns, merging their dictionaries
+     *
+     * @param parts Columns to concatenate
+     * @return New column using a dictionary shared by all parts
+     */
+    static DictionaryColumn concat(final DictionaryColumn... parts) {
+        int total = 0;
+        for (final DictionaryColumn part : parts) {
+            total += part.size();
+        }
+        final DictionaryColumn rv = new DictionaryColumn(new int[total], new String[0]);
+        int at = 0;
+        for (final DictionaryColumn part : parts) {
+            // Translate the codes of the part once per distinct value
+            final int[] remap = new int[part.distinct];
+            for (int c = 0; c < remap.length; c += 1) {
+                remap[c] = rv.codeOrAdd(part.dictionary[c]);
+            }
+            for (int i = 0; i < part.size; i += 1) {
+                rv.codes[at + i] = remap[part.codes[i]];
+            }
+            at += part.size();
+        }
+        return rv;
+    }
+
+    /**
+     * Dictionary-encodes a raw text column if it has few distinct values.
+     * Distinct values are found by hashing their raw bytes, so each of them is
+     * decoded only once.
+     *
+     * @param raw         Raw text of the column
+     * @param maxDistinct Largest number of distinct values accepted
+     * @return New column, null if there are more distinct values than allowed
+     */
+    static DictionaryColumn encode(final ColumnBuilder raw, final int maxDistinct) {
+        final int height = raw.size();
+        final byte[] b = raw.bytes();
+        final int[] codes = new int[height];
+
+        // Open addressing table of codes, with the hash and first row of each code
+        int[] table = new int[16];
+        Arrays.fill(table, -1);
+        int[] hashes = new int[8];
+        int[] firstRows = new int[8];
+        int distinct = 0;
+
+        for (int i = 0; i < height; i += 1) {
+            final int start = raw.start(i);
+            final int end = raw.end(i);
+            final int h = hash(b, start, end);
+            int slot = h & (table.length - 1);
+            int code;
+            while ((code = table[slot]) != -1) {
+                final int first = firstRows[code];
+                if (hashes[code] == h
+                        && Arrays.equals(b, start, end, b, raw.start(first), raw.end(first))) {
+                    break;
+                }
+                slot = (slot + 1) & (table.length - 1);
+            }
+            if (code == -1) {
+                if (distinct == maxDistinct) {
+                    return null;
+                }
+                code = distinct++;
+                if (code == hashes.length) {
+                    hashes = Arrays.copyOf(hashes, code * 2);
+                    firstRows = Arrays.copyOf(firstRows, code * 2);
+                }
+                hashes[code] = h;
+                firstRows[code] = i;
+                table[slot] = code;
+                if (distinct * 2 > table.length) {
+                    table = rehash(table, hashes, distinct);
+                }
+            }
+            codes[i] = code;
+        }
+
+        final String[] dictionary = new String[distinct];
+        for (int c = 0; c < distinct; c += 1) {
+            dictionary[c] = raw.text(firstRows[c]);
+        }
+        return new DictionaryColumn(codes, dictionary);
+    }
+
+    private static int[] rehash(final int[] table, final int[] hashes, final int distinct) {
+        final int[] grown = new int[table.length * 2];
+        Arrays.fill(grown, -1);
+        for (int code = 0; code < distinct; code += 1) {
+            int slot = hashes[code] & (grown.length - 1);
+            while (grown[slot] != -1) {
+                slot = (slot + 1) & (grown.length - 1);
+            }
+            grown[slot] = code;
+        }
+        return grown;
+    }
+
+    private static int hash(final byte[] b, final int start, final int end) {
+        int h = 1;
+        for (int i = start; i < end; i += 1) {
+            h = 31 * h + b[i];
+        }
+        // Spread the high bits over the low ones used by the table
+        return h ^ (h >>> 16);
+    }
+}
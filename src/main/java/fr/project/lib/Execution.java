@@ -0,0 +1,93 @@
+package fr.project.lib;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Settings shared by the operations of {@link DataFrame} that can run on
+ * several threads.
+ */
+public final class Execution {
+    // Pool running the parallel operations
+    private static volatile ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    // Smallest file size, in bytes, loaded in parallel
+    private static volatile long parallelLoadThreshold = 16L << 20;
+
+    // Smallest column length, in rows, reduced or sorted in parallel
+    private static volatile int parallelReduceThreshold = 1 << 20;
+
+    private Execution() {
+    }
+
+    /**
+     * Gets the pool running the parallel operations
+     * @return The pool, the common pool by default
+     */
+    public static ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Sets the pool running the parallel operations
+     * @param p New pool
+     * @throws NullPointerException if p is null
+     */
+    public static void setPool(final ForkJoinPool p) {
+        if (p == null) {
+            throw new NullPointerException("pool");
+        }
+        pool = p;
+    }
+
+    /**
+     * Gets the smallest file size loaded in parallel
+     * @return Size in bytes, 16 MB by default
+     */
+    public static long getParallelLoadThreshold() {
+        return parallelLoadThreshold;
+    }
+
+    /**
+     * Sets the smallest file size loaded in parallel, smaller files are read
+     * by the calling thread
+     * @param bytes Size in bytes
+     */
+    public static void setParallelLoadThreshold(final long bytes) {
+        parallelLoadThreshold = bytes;
+    }
+
+    /**
+     * Checks if a file should be loaded in parallel
+     * @param bytes Size of the file
+     * @return true if the file is large enough and the pool has several workers
+     */
+    static boolean loadInParallel(final long bytes) {
+        return bytes >= parallelLoadThreshold && pool.getParallelism() > 1;
+    }
+
+    /**
+     * Gets the smallest column length reduced in parallel
+     * @return Row count, 1M by default
+     */
+    public static int getParallelReduceThreshold() {
+        return parallelReduceThreshold;
+    }
+
+    /**
+     * Sets the smallest column length reduced or sorted in parallel, shorter
+     * columns are handled by the calling thread
+     * @param rows Row count
+     */
+    public static void setParallelReduceThreshold(final int rows) {
+        parallelReduceThreshold = rows;
+    }
+
+    /**
+     * Checks if a column should be reduced in parallel
+     * @param rows Length of the column
+     * @return true if the column is long enough and the pool has several workers
+     */
+    static boolean reduceInParallel(final int rows) {
+        return rows >= parallelReduceThreshold && pool.getParallelism() > 1;
+    }
+}
@@ -0,0 +1,222 @@
+package fr.project.lib;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+/**
+ * Parsers reading values straight from the UTF-8 bytes of a raw column into
+ * primitive arrays, without creating a String per value.
+ * Each parser accepts the same text as the matching check of
+ * {@link TypeInference} and returns false for anything else.
+ */
+final class FieldParsers {
+    // Exact powers of ten as floats, 10^10 being the last one below 2^24 * 2^10
+    private static final float[] FLOAT_POW10 = {
+        1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+    };
+
+    // Exact powers of ten as doubles
+    private static final double[] DOUBLE_POW10 = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private FieldParsers() {
+    }
+
+    /**
+     * Parses an optionally signed decimal integer in the int range
+     *
+     * @return false if the text is not such an integer
+     */
+    static boolean parseInt(final byte[] b, int i, final int end, final int[] out, final int at) {
+        boolean negative = false;
+        if (i < end && (b[i] == '-' || b[i] == '+')) {
+            negative = b[i] == '-';
+            i += 1;
+        }
+        if (i == end) {
+            return false;
+        }
+        final long limit = negative ? 1L << 31 : (1L << 31) - 1;
+        long value = 0;
+        for (; i < end; i += 1) {
+            final int d = b[i] - '0';
+            if (d < 0 || d > 9) {
+                return false;
+            }
+            value = value * 10 + d;
+            if (value > limit) {
+                return false;
+            }
+        }
+        out[at] = (int) (negative ? -value : value);
+        return true;
+    }
+
+    /**
+     * Parses a decimal floating point number, rounded to the nearest float.
+     * Numbers with at most 7 significant digits and small exponents, which
+     * are the bulk of real data, are computed exactly with one float or double
+     * operation (Clinger's fast path). Others fall back to
+     * {@link Float#parseFloat(String)}.
+     *
+     * @return false if the text is not a number
+     */
+    static boolean parseFloat(final byte[] b, final int start, final int end, final float[] out, final int at) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (b[i] == '-' || b[i] == '+')) {
+            negative = b[i] == '-';
+            i += 1;
+        }
+
+        // Significant digits, 18 of them always fit in a long
+        long mantissa = 0;
+        int significant = 0;
+        int exponent = 0;
+        int digits = 0;
+        for (; i < end && b[i] >= '0' && b[i] <= '9'; i += 1, digits += 1) {
+            if (significant < 18) {
+                mantissa = mantissa * 10 + b[i] - '0';
+                significant += mantissa == 0 ? 0 : 1;
+            } else {
+                exponent += 1;
+            }
+        }
+        if (i < end && b[i] == '.') {
+            for (i += 1; i < end && b[i] >= '0' && b[i] <= '9'; i += 1, digits += 1) {
+                if (significant < 18) {
+                    mantissa = mantissa * 10 + b[i] - '0';
+                    significant += mantissa == 0 ? 0 : 1;
+                    exponent -= 1;
+                }
+            }
+        }
+        if (digits == 0) {
+            return parseSpecial(b, start, end, out, at);
+        }
+        if (i < end && (b[i] == 'e' || b[i] == 'E')) {
+            i += 1;
+            boolean negativeExp = false;
+            if (i < end && (b[i] == '-' || b[i] == '+')) {
+                negativeExp = b[i] == '-';
+                i += 1;
+            }
+            if (i == end) {
+                return false;
+            }
+            int e = 0;
+            for (; i < end && b[i] >= '0' && b[i] <= '9'; i += 1) {
+                if (e < 100000) {
+                    e = e * 10 + b[i] - '0';
+                }
+            }
+            exponent += negativeExp ? -e : e;
+        }
+        if (i != end) {
+            return false;
+        }
+
+        float value;
+        if (mantissa == 0) {
+            value = 0f;
+        } else if (mantissa < (1L << 24) && exponent >= -10 && exponent <= 10) {
+            // Both operands are exact floats, the single operation rounds correctly
+            value = exponent < 0 ? mantissa / FLOAT_POW10[-exponent] : mantissa * FLOAT_POW10[exponent];
+        } else if (mantissa < (1L << 53) && exponent >= 0 && exponent <= 22
+                && mantissa <= (1L << 53) / DOUBLE_POW10[exponent]) {
+            // The product is an exact double, so a single rounding to float
+            value = (float) (mantissa * DOUBLE_POW10[exponent]);
+        } else {
+            value = Float.parseFloat(new String(b, start, end - start, ISO_8859_1));
+            out[at] = value;
+            return true;
+        }
+        out[at] = negative ? -value : value;
+        return true;
+    }
+
+    /**
+     * Parses NaN and Infinity with an optional sign
+     */
+    private static boolean parseSpecial(final byte[] b, int i, final int end, final float[] out, final int at) {
+        boolean negative = false;
+        if (i < end && (b[i] == '-' || b[i] == '+')) {
+            negative = b[i] == '-';
+            i += 1;
+        }
+        if (matches(b, i, end, "NaN")) {
+            out[at] = Float.NaN;
+            return true;
+        } else if (matches(b, i, end, "Infinity")) {
+            out[at] = negative ? Float.NEGATIVE_INFINITY : Float.POSITIVE_INFINITY;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Parses true, false, True or False
+     *
+     * @return false if the text is not a boolean
+     */
+    static boolean parseBool(final byte[] b, final int start, final int end, final boolean[] out, final int at) {
+        if (matches(b, start, end, "true") || matches(b, start, end, "True")) {
+            out[at] = true;
+            return true;
+        } else if (matches(b, start, end, "false") || matches(b, start, end, "False")) {
+            out[at] = false;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Parses a date written yyyy-MM-dd or yyyy/MM/dd into days since 1970-01-01
+     *
+     * @return false if the text is not an existing date
+     */
+    static boolean parseDate(final byte[] b, final int start, final int end, final int[] out, final int at) {
+        if (!TypeInference.isDate(b, start, end)) {
+            return false;
+        }
+        final int year = digits(b, start, 4);
+        final int month = digits(b, start + 5, 2);
+        final int day = digits(b, start + 8, 2);
+        out[at] = (int) epochDay(year, month, day);
+        return true;
+    }
+
+    /**
+     * Counts the days from 1970-01-01 to a date of the proleptic ISO calendar
+     */
+    static long epochDay(final int year, final int month, final int day) {
+        // Years start in March so that the leap day is the last day of a year
+        final long y = month <= 2 ? year - 1 : year;
+        final long era = Math.floorDiv(y, 400);
+        final long yoe = y - era * 400;
+        final long doy = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        final long doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097 + doe - 719468;
+    }
+
+    private static int digits(final byte[] b, final int start, final int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i += 1) {
+            value = value * 10 + b[i] - '0';
+        }
+        return value;
+    }
+
+    private static boolean matches(final byte[] b, final int start, final int end, final String word) {
+        if (end - start != word.length()) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i += 1) {
+            if (b[start + i] != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
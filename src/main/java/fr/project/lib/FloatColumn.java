@@ -0,0 +1,87 @@
+package fr.project.lib;
+
+import java.util.Arrays;
+
+/**
+ * Column of Float values backed by a {@code float[]}
+ */
+final class FloatColumn extends Column {
+    // Column values
+    float[] values;
+
+    // Number of rows, the array may have room for more
+    int size;
+
+    FloatColumn(final float[] values) {
+        this.values = values;
+        this.size = values.length;
+    }
+
+    @Override
+    int size() {
+        return size;
+    }
+
+    @Override
+    Class<?> type() {
+        return Float.class;
+    }
+
+    @Override
+    Object value(final int row) {
+        return values[row];
+    }
+
+    @Override
+    void put(final int row, final Object value) {
+        values[row] = (Float) value;
+    }
+
+    @Override
+    void setNull(final int row) {
+        super.setNull(row);
+        values[row] = Float.NaN;
+    }
+
+    @Override
+    void hideNulls() {
+        // Null rows hold NaN, which numeric kernels already skip
+        for (int i = 0; i < size; i += 1) {
+            if (isNull(i)) {
+                values[i] = Float.NaN;
+            }
+        }
+    }
+
+    @Override
+    void appendTo(final int row, final StringBuilder sb) {
+        sb.append(values[row]);
+    }
+
+    @Override
+    void copyInto(final Column dest, final int at) {
+        System.arraycopy(values, 0, ((FloatColumn) dest).values, at, size);
+    }
+
+    @Override
+    Column takeValues(final int[] rows) {
+        final float[] rv = new float[rows.length];
+        for (int i = 0; i < rows.length; i += 1) {
+            rv[i] = values[rows[i]];
+        }
+        return new FloatColumn(rv);
+    }
+
+    @Override
+    void resize(final int rows) {
+        if (rows > values.length) {
+            values = Arrays.copyOf(values, capacity(values.length, rows));
+        }
+        size = rows;
+    }
+
+    @Override
+    Column copyValues() {
+        return new FloatColumn(Arrays.copyOf(values, size));
+    }
+}
@@ -0,0 +1,111 @@
+package fr.project.lib;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import fr.project.lib.utility.FieldSink;
+
+/**
+ * Collects the fields of a {@link fr.project.lib.utility.DelimitedTokenizer}
+ * straight into one {@link ColumnBuilder} per column.
+ * The first record gives the column labels and the table width, extra fields
+ * in later records are ignored. Missing fields, and empty fields without
+ * quotes, are null values.
+ */
+final class FrameBuilder implements FieldSink {
+    // Labels read from the header, null until the header is complete
+    private String[] header;
+
+    // Labels of the header being read
+    private final List<String> headerFields = new ArrayList<>();
+
+    // One raw value buffer per column
+    private ColumnBuilder[] builders;
+
+    // Number of data records read
+    private int rows;
+
+    /**
+     * Creates a builder reading the header from the first record
+     */
+    FrameBuilder() {
+    }
+
+    /**
+     * Creates a builder for input without header, such as a chunk of a file
+     *
+     * @param labels Column labels of the file
+     */
+    FrameBuilder(final String[] labels) {
+        header = labels;
+        builders = new ColumnBuilder[labels.length];
+        for (int j = 0; j < builders.length; j += 1) {
+            builders[j] = new ColumnBuilder();
+        }
+    }
+
+    @Override
+    public void field(final int column, final byte[] buf, final int len, final boolean quoted) {
+        if (header == null) {
+            headerFields.add(new String(buf, 0, len, UTF_8));
+        } else if (column < builders.length) {
+            if (len == 0 && !quoted) {
+                builders[column].addMissing();
+            } else {
+                builders[column].add(buf, len);
+            }
+        }
+    }
+
+    @Override
+    public boolean endRecord() {
+        if (header == null) {
+            header = headerFields.toArray(new String[0]);
+            builders = new ColumnBuilder[header.length];
+            for (int j = 0; j < builders.length; j += 1) {
+                builders[j] = new ColumnBuilder();
+            }
+            return true;
+        }
+        rows += 1;
+        for (final ColumnBuilder builder : builders) {
+            if (builder.size() < rows) {
+                builder.addMissing();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Gets the column labels
+     *
+     * @return Labels, null if the header was not read yet
+     */
+    String[] header() {
+        return header;
+    }
+
+    /**
+     * Gets the raw columns read so far
+     *
+     * @return One raw column per label
+     */
+    ColumnBuilder[] columns() {
+        return builders;
+    }
+
+    /**
+     * Builds the DataFrame from the records read so far
+     *
+     * @return New DataFrame with inferred column types
+     * @throws IllegalStateException if no header was read
+     */
+    DataFrame build() {
+        if (header == null) {
+            throw new IllegalStateException("Input has no header");
+        }
+        return new DataFrame(header, builders, rows);
+    }
+}
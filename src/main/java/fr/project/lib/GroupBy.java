@@ -0,0 +1,266 @@
+package fr.project.lib;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Rows of a DataFrame grouped on key columns, created by
+ * {@link DataFrame#groupBy(String...)}.
+ * <p>Rows are assigned to groups through a {@link GroupTable}. Long frames
+ * are cut into ranges, each grouped and aggregated on its own worker of
+ * {@link Execution#getPool()}; the partial results are then merged in range
+ * order, so groups keep the order of their first row.
+ */
+public final class GroupBy {
+    // Grouped DataFrame
+    private final DataFrame df;
+
+    // Indices of the key columns
+    private final int[] keys;
+
+    GroupBy(final DataFrame df, final int[] keys) {
+        this.df = df;
+        this.keys = keys;
+    }
+
+    /**
+     * Computes aggregations per group
+     * @param aggs Aggregations, see {@link Aggregate}
+     * @return New DataFrame with the key columns followed by one column per
+     *         aggregation, and one row per distinct key in order of first
+     *         appearance
+     * @throws IllegalArgumentException if an aggregated column doesn't exist
+     *         or is not numeric
+     */
+    public DataFrame agg(final Aggregate... aggs) {
+        final Column[] values = new Column[aggs.length];
+        for (int a = 0; a < aggs.length; a += 1) {
+            if (aggs[a].kind != Aggregate.Kind.COUNT) {
+                final int j = df.columnIndex(aggs[a].column);
+                values[a] = df.columns[j];
+                if (values[a].type() != Integer.class && values[a].type() != Float.class) {
+                    throw new IllegalArgumentException("Column is the wrong type : " + df.col_types[j]);
+                }
+            }
+        }
+        final List<int[]> codes = new ArrayList<>();
+        for (final int j : keys) {
+            final Column c = df.columns[j];
+            codes.add(Sorter.sortKeys(c, true));
+            if (c.nulls != null) {
+                // Null keys form their own group, apart from the rows of key 0
+                final int[] flags = new int[c.size()];
+                for (int i = 0; i < flags.length; i += 1) {
+                    flags[i] = c.isNull(i) ? 1 : 0;
+                }
+                codes.add(flags);
+            }
+        }
+        final int[][] keyCodes = codes.toArray(new int[0][]);
+        final int rows = df.height;
+
+        if (!Execution.reduceInParallel(rows)) {
+            return new Partial(keyCodes, aggs, values).add(0, rows).build(df, keys);
+        }
+
+        // Aggregate each range, then merge the later ranges into the first one
+        final List<Callable<Partial>> tasks = new ArrayList<>();
+        final int grain = Math.max(1 << 16, rows / (Execution.getPool().getParallelism() * 4));
+        for (int from = 0; from < rows; from += grain) {
+            final int start = from;
+            final int end = Math.min(rows, from + grain);
+            tasks.add(() -> new Partial(keyCodes, aggs, values).add(start, end));
+        }
+        final List<Partial> parts = run(tasks);
+        final Partial total = parts.get(0);
+        for (int k = 1; k < parts.size(); k += 1) {
+            total.merge(parts.get(k));
+        }
+        return total.build(df, keys);
+    }
+
+    private static List<Partial> run(final List<Callable<Partial>> tasks) {
+        final List<Partial> rv = new ArrayList<>(tasks.size());
+        try {
+            for (final Future<Partial> f : Execution.getPool().invokeAll(tasks)) {
+                rv.add(f.get());
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while grouping", e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return rv;
+    }
+
+    /**
+     * Groups and aggregated values of a range of rows
+     */
+    private static final class Partial {
+        private final Aggregate[] aggs;
+        private final Column[] values;
+        private final GroupTable table;
+
+        // Rows of each group
+        private long[] counts = new long[16];
+
+        // Per aggregation and group: sum, min or max, and number of non-null values
+        private final double[][] acc;
+        private final long[][] seen;
+
+        Partial(final int[][] keyCodes, final Aggregate[] aggs, final Column[] values) {
+            this.aggs = aggs;
+            this.values = values;
+            this.table = new GroupTable(keyCodes);
+            acc = new double[aggs.length][16];
+            seen = new long[aggs.length][16];
+        }
+
+        /**
+         * Aggregates a range of rows
+         */
+        Partial add(final int from, final int to) {
+            final int[] groups = new int[to - from];
+            for (int i = from; i < to; i += 1) {
+                groups[i - from] = table.groupOf(i);
+            }
+            grow(table.size());
+            for (final int g : groups) {
+                counts[g] += 1;
+            }
+            for (int a = 0; a < aggs.length; a += 1) {
+                final Aggregate.Kind kind = aggs[a].kind;
+                final double[] x = acc[a];
+                final long[] n = seen[a];
+                if (values[a] instanceof final IntColumn ic) {
+                    final int[] v = ic.values;
+                    for (int i = from; i < to; i += 1) {
+                        if (ic.nulls == null || !ic.isNull(i)) {
+                            accumulate(kind, x, n, groups[i - from], v[i]);
+                        }
+                    }
+                } else if (values[a] instanceof final FloatColumn fc) {
+                    final float[] v = fc.values;
+                    for (int i = from; i < to; i += 1) {
+                        if (v[i] == v[i]) {
+                            accumulate(kind, x, n, groups[i - from], v[i]);
+                        }
+                    }
+                } else if (values[a] != null) {
+                    // Segmented columns are read through their boxed values
+                    for (int i = from; i < to; i += 1) {
+                        final Object v = values[a].get(i);
+                        if (v != null && ((Number) v).doubleValue() == ((Number) v).doubleValue()) {
+                            accumulate(kind, x, n, groups[i - from], ((Number) v).doubleValue());
+                        }
+                    }
+                }
+            }
+            return this;
+        }
+
+        private static void accumulate(final Aggregate.Kind kind, final double[] x, final long[] n,
+                final int g, final double v) {
+            switch (kind) {
+                case SUM, MEAN -> x[g] += v;
+                case MIN -> x[g] = n[g] == 0 ? v : Math.min(x[g], v);
+                case MAX -> x[g] = n[g] == 0 ? v : Math.max(x[g], v);
+                default -> {
+                }
+            }
+            n[g] += 1;
+        }
+
+        /**
+         * Adds the groups and values of a later range
+         */
+        void merge(final Partial other) {
+            for (int lg = 0; lg < other.table.size(); lg += 1) {
+                final int g = table.groupOf(other.table.firstRow(lg));
+                grow(table.size());
+                counts[g] += other.counts[lg];
+                for (int a = 0; a < aggs.length; a += 1) {
+                    if (other.seen[a][lg] > 0) {
+                        final double v = other.acc[a][lg];
+                        final long before = seen[a][g];
+                        accumulate(aggs[a].kind, acc[a], seen[a], g, v);
+                        seen[a][g] = before + other.seen[a][lg];
+                    }
+                }
+            }
+        }
+
+        private void grow(final int groups) {
+            if (groups > counts.length) {
+                final int capacity = Math.max(groups, counts.length * 2);
+                counts = Arrays.copyOf(counts, capacity);
+                for (int a = 0; a < aggs.length; a += 1) {
+                    acc[a] = Arrays.copyOf(acc[a], capacity);
+                    seen[a] = Arrays.copyOf(seen[a], capacity);
+                }
+            }
+        }
+
+        /**
+         * Builds the result DataFrame
+         */
+        DataFrame build(final DataFrame df, final int[] keys) {
+            final int groups = table.size();
+            final int[] firstRows = new int[groups];
+            for (int g = 0; g < groups; g += 1) {
+                firstRows[g] = table.firstRow(g);
+            }
+            final String[] labels = new String[keys.length + aggs.length];
+            final Column[] cols = new Column[labels.length];
+            for (int k = 0; k < keys.length; k += 1) {
+                labels[k] = df.col_label[keys[k]];
+                cols[k] = df.columns[keys[k]].take(firstRows);
+            }
+            for (int a = 0; a < aggs.length; a += 1) {
+                labels[keys.length + a] = aggs[a].label();
+                cols[keys.length + a] = result(a, groups);
+            }
+            return new DataFrame(labels, cols, groups);
+        }
+
+        private Column result(final int a, final int groups) {
+            final Aggregate.Kind kind = aggs[a].kind;
+            if (kind == Aggregate.Kind.COUNT) {
+                final int[] rv = new int[groups];
+                for (int g = 0; g < groups; g += 1) {
+                    rv[g] = (int) counts[g];
+                }
+                return new IntColumn(rv);
+            } else if (values[a].type() == Integer.class && kind != Aggregate.Kind.SUM && kind != Aggregate.Kind.MEAN) {
+                final IntColumn rv = new IntColumn(new int[groups]);
+                for (int g = 0; g < groups; g += 1) {
+                    rv.values[g] = (int) acc[a][g];
+                    if (seen[a][g] == 0) {
+                        rv.setNull(g);
+                    }
+                }
+                return rv;
+            }
+            final float[] rv = new float[groups];
+            for (int g = 0; g < groups; g += 1) {
+                final long n = seen[a][g];
+                if (kind == Aggregate.Kind.MEAN) {
+                    rv[g] = n == 0 ? Float.NaN : (float) (acc[a][g] / n);
+                } else if (kind == Aggregate.Kind.SUM) {
+                    rv[g] = (float) acc[a][g];
+                } else {
+                    rv[g] = n == 0 ? Float.NaN : (float) acc[a][g];
+                }
+            }
+            return new FloatColumn(rv);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package fr.project.lib;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing hash table giving a group id to rows with equal keys.
+ * Keys are one int per row and key column, as built by
+ * {@link Sorter#sortKeys}, so rows are hashed and compared without creating
+ * objects. Each group remembers the first row seen with its key, and ids are
+ * given in order of first appearance.
+ */
+final class GroupTable {
+    // Key of each row, one array per key column
+    private final int[][] keys;
+
+    // Group id in each used slot, -1 for free slots
+    private int[] slots = new int[16];
+
+    // Hash and first row of each group
+    private int[] hashes = new int[8];
+    private int[] firstRows = new int[8];
+
+    // Number of groups
+    private int groups;
+
+    GroupTable(final int[][] keys) {
+        this.keys = keys;
+        Arrays.fill(slots, -1);
+    }
+
+    /**
+     * Gets the group of a row, creating it if its key is new
+     *
+     * @param row Index of the row in the key arrays
+     * @return Group id
+     */
+    int groupOf(final int row) {
+        final int h = hash(keys, row);
+        int slot = h & (slots.length - 1);
+        int g;
+        while ((g = slots[slot]) != -1) {
+            if (hashes[g] == h && sameKey(firstRows[g], row)) {
+                return g;
+            }
+            slot = (slot + 1) & (slots.length - 1);
+        }
+        g = groups++;
+        if (g == hashes.length) {
+            hashes = Arrays.copyOf(hashes, g * 2);
+            firstRows = Arrays.copyOf(firstRows, g * 2);
+        }
+        hashes[g] = h;
+        firstRows[g] = row;
+        slots[slot] = g;
+        if (groups * 2 > slots.length) {
+            rehash();
+        }
+        return g;
+    }
+
+    /**
+     * Finds the group of a row of other key arrays, without creating groups.
+     * The table is only read, so several threads may look up at once.
+     *
+     * @param other Keys of other rows, one array per key column, coded like
+     *              the keys of this table
+     * @param row   Index of the row in the other key arrays
+     * @return Group id, -1 if no group has the key
+     */
+    int find(final int[][] other, final int row) {
+        final int h = hash(other, row);
+        int slot = h & (slots.length - 1);
+        int g;
+        while ((g = slots[slot]) != -1) {
+            if (hashes[g] == h && sameKey(firstRows[g], other, row)) {
+                return g;
+            }
+            slot = (slot + 1) & (slots.length - 1);
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the number of groups
+     *
+     * @return Number of distinct keys seen
+     */
+    int size() {
+        return groups;
+    }
+
+    /**
+     * Gets the first row of a group
+     *
+     * @param g Group id
+     * @return Index of the first row seen with the key of the group
+     */
+    int firstRow(final int g) {
+        return firstRows[g];
+    }
+
+    private boolean sameKey(final int a, final int b) {
+        return sameKey(a, keys, b);
+    }
+
+    private boolean sameKey(final int a, final int[][] other, final int b) {
+        for (int k = 0; k < keys.length; k += 1) {
+            if (keys[k][a] != other[k][b]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(final int[][] keys, final int row) {
+        int h = 0;
+        for (final int[] k : keys) {
+            h = mix(h * 0x9E3779B9 + k[row]);
+        }
+        return h;
+    }
+
+    /**
+     * Murmur3 finalizer, spreading every bit of a key over the low bits used
+     * as slots; float keys of round values differ only in their high bits
+     */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        return h ^ (h >>> 16);
+    }
+
+    private void rehash() {
+        final int[] grown = new int[slots.length * 2];
+        Arrays.fill(grown, -1);
+        for (int g = 0; g < groups; g += 1) {
+            int slot = hashes[g] & (grown.length - 1);
+            while (grown[slot] != -1) {
+                slot = (slot + 1) & (grown.length - 1);
+            }
+            grown[slot] = g;
+        }
+        slots = grown;
+    }
+}
@@ -1,5 +1,8 @@
 package fr.project.lib;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
 import java.util.Iterator;
 import java.util.List;
 
@@ -55,15 +58,64 @@ public interface IDataFrame extends Iterable<String> {
 
     /**
      * Removes and returns a column from the DataFrame.
+     * Only the column directory changes, whatever the number of rows.
      * @param columnName Name of the column to remove
-     * @return List containing all values from the removed column in row order
+     * @return Read-only list of all values from the removed column in row order
      * @throws IllegalStateException if the DataFrame is empty
      * @throws IllegalArgumentException if the column doesn't exist
      */
     List<Object> pop(String columnName);
 
+    /**
+     * Removes columns from the DataFrame, without copying their values.
+     * @param columns Names of the columns to remove
+     * @return New DataFrame holding the removed columns, with the same row labels
+     * @throws IllegalArgumentException if a column doesn't exist
+     */
+    IDataFrame drop(String... columns);
+
+    /**
+     * Inserts the columns of another DataFrame, without copying their values.
+     * Both DataFrames then share the columns, copied on write by either one.
+     * @param position Index of the first inserted column, at most the column count
+     * @param other    DataFrame holding the columns to insert, with the same row count
+     * @throws IndexOutOfBoundsException if position is not within the columns
+     * @throws IllegalArgumentException if the row counts differ or a label is
+     *         already in use
+     */
+    void insert(int position, IDataFrame other);
+
+    /**
+     * Adds a column after the last one. Its type is the class shared by every
+     * non-null value, or Object.
+     * @param label  Label of the new column
+     * @param values Values of the column, one per row
+     * @throws IllegalArgumentException if the row count differs or the label
+     *         is already in use
+     */
+    void addColumn(String label, List<?> values);
+
+    /**
+     * Appends a row, labelled by its position. Storage grows geometrically,
+     * so appending rows one at a time costs amortized constant time per row.
+     * @param row One value per column, of the column type, or null
+     * @throws IllegalArgumentException if the number or types of the values
+     *         do not match the columns
+     */
+    void append(Object... row);
+
+    /**
+     * Appends every row of another DataFrame, labelled by their position.
+     * Columns of the same storage are bulk-copied.
+     * @param batch DataFrame with the same labels and column types
+     * @throws IllegalArgumentException if the labels or types differ
+     */
+    void appendAll(IDataFrame batch);
+
     /**
      * Gets a subset DataFrame containing only the specified columns.
+     * The subset may share storage with this DataFrame, removing columns
+     * from either of them does not affect the other.
      * @param columnNames Names of columns to include in the subset
      * @return New DataFrame containing only the specified columns
      * @throws IllegalStateException if the DataFrame is empty
@@ -158,6 +210,79 @@ public interface IDataFrame extends Iterable<String> {
      */
     float Min(String columnName);
 
+    /**
+     * Starts a test on the values of a column, such as
+     * {@code where("age").gt(30)}.
+     * @param column Name of the column
+     * @return Tests producing row masks
+     * @throws IllegalArgumentException if the column doesn't exist
+     */
+    Where where(String column);
+
+    /**
+     * Gets the rows selected by a mask.
+     * @param mask Mask of this DataFrame's rows, from {@link #where(String)}
+     * @return New DataFrame with the selected rows, in their original order
+     * @throws IllegalArgumentException if the mask size doesn't match the row count
+     */
+    IDataFrame filter(RowMask mask);
+
+    /**
+     * Joins with another DataFrame on key columns found in both.
+     * Rows come in the order of this frame, each followed by its matches in
+     * the order of the other frame, then for outer joins the unmatched rows
+     * of the other frame, with null values for the columns of the side
+     * that has no match. Null keys match each other.
+     * @param other DataFrame to join with
+     * @param how   Kind of join
+     * @param on    Names of the key columns
+     * @return New DataFrame with the key columns, the other columns of this
+     *         frame, then the other columns of the other frame, suffixed with
+     *         "_right" when their name is taken
+     * @throws IllegalArgumentException if a key is missing or of different
+     *         types in the two frames
+     */
+    IDataFrame join(IDataFrame other, DataFrame.JoinType how, String... on);
+
+    /**
+     * Groups the rows on key columns, to be aggregated with
+     * {@link GroupBy#agg(Aggregate...)}.
+     * @param keys Names of the key columns
+     * @return Grouped rows
+     * @throws IllegalArgumentException if a column doesn't exist
+     */
+    GroupBy groupBy(String... keys);
+
+    /**
+     * Sorts the rows in ascending order of some columns.
+     * @param cols Names of the key columns, most significant first
+     * @return New DataFrame with the rows and their labels reordered, equal
+     *         rows keeping their original order
+     * @throws IllegalArgumentException if a column doesn't exist or holds
+     *         values without a natural order
+     */
+    IDataFrame sortBy(String... cols);
+
+    /**
+     * Sorts the rows on some columns, each in its own direction.
+     * NaN values come last in both directions.
+     * @param cols      Names of the key columns, most significant first
+     * @param ascending Direction of each key column
+     * @return New DataFrame with the rows and their labels reordered
+     * @throws IllegalArgumentException if a column doesn't exist, cannot be
+     *         sorted, or the arrays have different lengths
+     */
+    IDataFrame sortBy(String[] cols, boolean[] ascending);
+
+    /**
+     * Summarizes every numeric (Integer/Float) column in a single pass.
+     * Statistics are cached per column, so later calls and calls to
+     * {@link #Mean}, {@link #Max} and {@link #Min} do not scan the data again.
+     * @return New DataFrame with one Float column per numeric column and the
+     *         rows count, null, sum, mean, variance (sample), min and max
+     */
+    IDataFrame describe();
+
     /**
      * Generates CSV representation of the DataFrame.
      * @return String containing CSV data with:
@@ -169,4 +294,52 @@ public interface IDataFrame extends Iterable<String> {
      * @throws IllegalStateException if DataFrame is empty
      */
     String toCSV();
+
+    /**
+     * Writes the DataFrame as CSV, with the layout of {@link #toCSV()}.
+     * Fields holding a comma, a quote or a line break are quoted.
+     * @param w Writer receiving the text, flushed but not closed
+     * @throws IOException if writing fails
+     */
+    void writeCSV(Writer w) throws IOException;
+
+    /**
+     * Writes the DataFrame as UTF-8 encoded CSV
+     * @param out Stream receiving the bytes, flushed but not closed
+     * @throws IOException if writing fails
+     */
+    void writeCSV(OutputStream out) throws IOException;
+
+    /**
+     * Writes the DataFrame as TSV, fields holding a tab, a quote or a line
+     * break being quoted
+     * @param w Writer receiving the text, flushed but not closed
+     * @throws IOException if writing fails
+     */
+    void writeTSV(Writer w) throws IOException;
+
+    /**
+     * Writes the DataFrame as UTF-8 encoded TSV
+     * @param out Stream receiving the bytes, flushed but not closed
+     * @throws IOException if writing fails
+     */
+    void writeTSV(OutputStream out) throws IOException;
+
+    /**
+     * Saves the DataFrame in a binary columnar file, which keeps the labels,
+     * column types and values and loads without parsing.
+     * @param filename Path to output file, replaced if it exists
+     * @throws IOException if writing fails
+     */
+    void save(String filename) throws IOException;
+
+    /**
+     * Copies the DataFrame into out-of-core storage, whose columns are cut
+     * into segments kept in memory or spilled to disk by a cache
+     * @param segmentRows Rows of each segment
+     * @param cache       Cache holding the segments, see {@link SegmentCache}
+     * @return New DataFrame with the same labels and values
+     * @throws IllegalArgumentException if segmentRows is not positive
+     */
+    IDataFrame segmented(int segmentRows, SegmentCache cache);
 }
\ No newline at end of file
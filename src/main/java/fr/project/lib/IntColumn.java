@@ -0,0 +1,71 @@
+package fr.project.lib;
+
+import java.util.Arrays;
+
+/**
+ * Column of Integer values backed by an {@code int[]}
+ */
+final class IntColumn extends Column {
+    // Column values
+    int[] values;
+
+    // Number of rows, the array may have room for more
+    int size;
+
+    IntColumn(final int[] values) {
+        this.values = values;
+        this.size = values.length;
+    }
+
+    @Override
+    int size() {
+        return size;
+    }
+
+    @Override
+    Class<?> type() {
+        return Integer.class;
+    }
+
+    @Override
+    Object value(final int row) {
+        return values[row];
+    }
+
+    @Override
+    void put(final int row, final Object value) {
+        values[row] = (Integer) value;
+    }
+
+    @Override
+    void appendTo(final int row, final StringBuilder sb) {
+        sb.append(values[row]);
+    }
+
+    @Override
+    void copyInto(final Column dest, final int at) {
+        System.arraycopy(values, 0, ((IntColumn) dest).values, at, size);
+    }
+
+    @Override
+    Column takeValues(final int[] rows) {
+        final int[] rv = new int[rows.length];
+        for (int i = 0; i < rows.length; i += 1) {
+            rv[i] = values[rows[i]];
+        }
+        return new IntColumn(rv);
+    }
+
+    @Override
+    void resize(final int rows) {
+        if (rows > values.length) {
+            values = Arrays.copyOf(values, capacity(values.length, rows));
+        }
+        size = rows;
+    }
+
+    @Override
+    Column copyValues() {
+        return new IntColumn(Arrays.copyOf(values, size));
+    }
+}
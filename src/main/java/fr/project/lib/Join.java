@@ -0,0 +1,310 @@
+package fr.project.lib;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Hash join of two DataFrames on key columns, see
+ * {@link DataFrame#join(IDataFrame, DataFrame.JoinType, String...)}.
+ * <p>The keys of both frames are coded as ints that are equal exactly when
+ * the values are equal. A {@link GroupTable} is built on the codes of the
+ * smaller frame and probed with the rows of the other one, in parallel on
+ * {@link Execution#getPool()} for long frames. The matching rows are
+ * collected as two arrays of row indices, from which every column of the
+ * result is gathered at once, unmatched rows becoming nulls.
+ */
+final class Join {
+    private Join() {
+    }
+
+    /**
+     * Joins two DataFrames
+     *
+     * @param left  Left frame, giving the order of the result
+     * @param right Right frame
+     * @param how   Kind of join
+     * @param on    Names of the key columns, present in both frames
+     * @return New DataFrame with the key columns, the other left columns and
+     *         the other right columns
+     * @throws IllegalArgumentException if a key is missing or of different
+     *         types in the two frames
+     */
+    static DataFrame join(final DataFrame left, final DataFrame right, final DataFrame.JoinType how,
+            final String[] on) {
+        if (on.length == 0) {
+            throw new IllegalArgumentException("No key column to join on");
+        }
+        final int[] lk = new int[on.length];
+        final int[] rk = new int[on.length];
+        final List<int[]> lKeys = new ArrayList<>();
+        final List<int[]> rKeys = new ArrayList<>();
+        for (int k = 0; k < on.length; k += 1) {
+            lk[k] = left.columnIndex(on[k]);
+            rk[k] = right.columnIndex(on[k]);
+            codes(left.columns[lk[k]], right.columns[rk[k]], on[k], lKeys, rKeys);
+        }
+        final int[][] lCodes = lKeys.toArray(new int[0][]);
+        final int[][] rCodes = rKeys.toArray(new int[0][]);
+
+        // Group ids shared by both sides, -1 for keys missing on the build side
+        final int nl = left.height;
+        final int nr = right.height;
+        final int[] lg;
+        final int[] rg;
+        final int groups;
+        if (nr <= nl) {
+            final GroupTable table = new GroupTable(rCodes);
+            rg = firstGroups(table, nr);
+            lg = probe(table, lCodes, nl);
+            groups = table.size();
+        } else {
+            final GroupTable table = new GroupTable(lCodes);
+            lg = firstGroups(table, nl);
+            rg = probe(table, rCodes, nr);
+            groups = table.size();
+        }
+
+        // Right rows of each group, in their order
+        final int[] start = new int[groups + 1];
+        for (final int g : rg) {
+            if (g >= 0) {
+                start[g + 1] += 1;
+            }
+        }
+        for (int g = 0; g < groups; g += 1) {
+            start[g + 1] += start[g];
+        }
+        final int[] next = Arrays.copyOf(start, groups);
+        final int[] byGroup = new int[nr];
+        for (int r = 0; r < nr; r += 1) {
+            if (rg[r] >= 0) {
+                byGroup[next[rg[r]]++] = r;
+            }
+        }
+
+        // Count the rows of the result
+        final boolean keepLeft = how != DataFrame.JoinType.Inner;
+        final boolean keepRight = how == DataFrame.JoinType.Outer;
+        final boolean[] matched = new boolean[groups];
+        long total = 0;
+        for (final int g : lg) {
+            final int m = g < 0 ? 0 : start[g + 1] - start[g];
+            if (m > 0) {
+                matched[g] = true;
+                total += m;
+            } else if (keepLeft) {
+                total += 1;
+            }
+        }
+        if (keepRight) {
+            for (final int g : rg) {
+                if (g < 0 || !matched[g]) {
+                    total += 1;
+                }
+            }
+        }
+        if (total > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Join of " + total + " rows is too large");
+        }
+
+        // Pairs of rows, -1 where a side has no match
+        final int[] lRows = new int[(int) total];
+        final int[] rRows = new int[(int) total];
+        int i = 0;
+        for (int l = 0; l < nl; l += 1) {
+            final int g = lg[l];
+            if (g >= 0 && start[g + 1] > start[g]) {
+                for (int p = start[g]; p < start[g + 1]; p += 1) {
+                    lRows[i] = l;
+                    rRows[i++] = byGroup[p];
+                }
+            } else if (keepLeft) {
+                lRows[i] = l;
+                rRows[i++] = -1;
+            }
+        }
+        final int paired = i;
+        if (keepRight) {
+            for (int r = 0; r < nr; r += 1) {
+                if (rg[r] < 0 || !matched[rg[r]]) {
+                    lRows[i] = -1;
+                    rRows[i++] = r;
+                }
+            }
+        }
+        final boolean leftMissing = i > paired;
+
+        final List<String> labels = new ArrayList<>();
+        final List<Column> cols = new ArrayList<>();
+        for (int k = 0; k < on.length; k += 1) {
+            final Column key = left.columns[lk[k]];
+            labels.add(on[k]);
+            cols.add(!leftMissing ? key.take(lRows) : Column.concat(key.type(),
+                    key.take(Arrays.copyOf(lRows, paired)),
+                    right.columns[rk[k]].take(Arrays.copyOfRange(rRows, paired, i))));
+        }
+        final Set<String> taken = new HashSet<>(Arrays.asList(left.col_label));
+        for (int j = 0; j < left.columns.length; j += 1) {
+            if (!contains(lk, j)) {
+                labels.add(left.col_label[j]);
+                cols.add(left.columns[j].take(lRows));
+            }
+        }
+        for (int j = 0; j < right.columns.length; j += 1) {
+            if (!contains(rk, j)) {
+                final String label = right.col_label[j];
+                labels.add(taken.contains(label) ? label + "_right" : label);
+                cols.add(right.columns[j].take(rRows));
+            }
+        }
+        return new DataFrame(labels.toArray(new String[0]), cols.toArray(new Column[0]), i);
+    }
+
+    /**
+     * Codes a key column of each frame with the same ints for the same values
+     *
+     * @param a     Key column of the left frame
+     * @param b     Key column of the right frame
+     * @param label Name of the key, for error messages
+     * @param ac    Codes of the left keys, receiving the codes of a
+     * @param bc    Codes of the right keys, receiving the codes of b
+     */
+    private static void codes(final Column a, final Column b, final String label,
+            final List<int[]> ac, final List<int[]> bc) {
+        if (a.type() != b.type()) {
+            throw new IllegalArgumentException("Cannot join column '" + label + "' of type "
+                    + a.type().getSimpleName() + " with type " + b.type().getSimpleName());
+        }
+        final int[] x;
+        final int[] y;
+        if (a.type() == String.class) {
+            final Map<String, Integer> dictionary = new HashMap<>();
+            x = textCodes(a, dictionary);
+            y = textCodes(b, dictionary);
+        } else {
+            x = valueCodes(a, label);
+            y = valueCodes(b, label);
+        }
+        if (a.nulls == null && b.nulls == null) {
+            ac.add(x);
+            bc.add(y);
+        } else {
+            // Null keys match each other, through a zero code and a flag
+            flagNulls(a, x, ac);
+            flagNulls(b, y, bc);
+        }
+    }
+
+    private static void flagNulls(final Column c, final int[] codes, final List<int[]> keys) {
+        final int[] rv = c.nulls == null ? codes : codes.clone();
+        final int[] flags = new int[c.size()];
+        for (int i = 0; i < flags.length; i += 1) {
+            if (c.isNull(i)) {
+                rv[i] = 0;
+                flags[i] = 1;
+            }
+        }
+        keys.add(rv);
+        keys.add(flags);
+    }
+
+    private static int[] valueCodes(final Column c, final String label) {
+        // Tables only read the codes, so int values are used as they are
+        if (c instanceof final IntColumn ic) {
+            return ic.values;
+        } else if (c instanceof final DateColumn dc) {
+            return dc.days;
+        }
+        final int n = c.size();
+        final int[] rv = new int[n];
+        if (c instanceof final SegmentedColumn sc) {
+            for (int k = 0; k < sc.segmentCount(); k += 1) {
+                final Column part = sc.segment(k);
+                System.arraycopy(valueCodes(part, label), 0, rv, sc.segmentStart(k), part.size());
+            }
+        } else if (c instanceof final FloatColumn fc) {
+            for (int i = 0; i < n; i += 1) {
+                // Adding 0 turns -0 into 0, and NaN has a single bit pattern
+                rv[i] = Float.floatToIntBits(fc.values[i] + 0f);
+            }
+        } else if (c instanceof final BooleanColumn bc) {
+            for (int i = 0; i < n; i += 1) {
+                rv[i] = bc.values[i] ? 1 : 0;
+            }
+        } else {
+            throw new IllegalArgumentException("Cannot join on column '" + label + "' of type "
+                    + c.type().getSimpleName());
+        }
+        return rv;
+    }
+
+    private static int[] textCodes(final Column c, final Map<String, Integer> dictionary) {
+        final int n = c.size();
+        final int[] rv = new int[n];
+        if (c instanceof final DictionaryColumn dc) {
+            // One lookup per distinct value
+            final int[] mapped = new int[dc.distinct];
+            for (int code = 0; code < mapped.length; code += 1) {
+                mapped[code] = dictionary.computeIfAbsent(dc.dictionary[code], v -> dictionary.size());
+            }
+            for (int i = 0; i < n; i += 1) {
+                rv[i] = mapped[dc.codes[i]];
+            }
+        } else if (c instanceof final SegmentedColumn sc) {
+            for (int k = 0; k < sc.segmentCount(); k += 1) {
+                final Column part = sc.segment(k);
+                System.arraycopy(textCodes(part, dictionary), 0, rv, sc.segmentStart(k), part.size());
+            }
+        } else {
+            final String[] values = ((StringColumn) c).values;
+            for (int i = 0; i < n; i += 1) {
+                rv[i] = dictionary.computeIfAbsent(values[i], v -> dictionary.size());
+            }
+        }
+        return rv;
+    }
+
+    private static int[] firstGroups(final GroupTable table, final int rows) {
+        final int[] rv = new int[rows];
+        for (int r = 0; r < rows; r += 1) {
+            rv[r] = table.groupOf(r);
+        }
+        return rv;
+    }
+
+    /**
+     * Looks up the rows of the probe side in the table of the build side
+     *
+     * @param table Table of the build side
+     * @param codes Key codes of the probe side
+     * @param rows  Number of rows of the probe side
+     * @return Group of each row, -1 if its key is not in the table
+     */
+    private static int[] probe(final GroupTable table, final int[][] codes, final int rows) {
+        final int[] rv = new int[rows];
+        if (Execution.reduceInParallel(rows)) {
+            Execution.getPool().submit(() -> IntStream.range(0, rows).parallel()
+                    .forEach(r -> rv[r] = table.find(codes, r))).join();
+        } else {
+            for (int r = 0; r < rows; r += 1) {
+                rv[r] = table.find(codes, r);
+            }
+        }
+        return rv;
+    }
+
+    private static boolean contains(final int[] indices, final int j) {
+        for (final int k : indices) {
+            if (k == j) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
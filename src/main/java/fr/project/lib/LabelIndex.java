@@ -0,0 +1,151 @@
+package fr.project.lib;
+
+import java.util.Arrays;
+
+/**
+ * Hash index from labels to their position in a label array.
+ * Positions are kept in an open addressing {@code int[]} table probed with
+ * {@link String#hashCode()}, so no boxed key or value is created per label.
+ * When a label appears several times, its first position is returned, as a
+ * linear scan would.
+ * <p>Labels added after the last indexed one are indexed with {@link #add},
+ * the table doubling as it fills, so that a growing label array keeps its
+ * index at amortized constant cost per label.
+ */
+final class LabelIndex {
+    // Indexed labels, the first size ones of the array
+    private String[] labels;
+    private int size;
+
+    // Position of a label in each used slot, -1 for free slots
+    private int[] table;
+
+    // Number of used slots
+    private int used;
+
+    /**
+     * Builds the index of a label array
+     *
+     * @param labels Labels to index, must not change while the index is used
+     */
+    LabelIndex(final String[] labels) {
+        this(labels, labels.length);
+    }
+
+    /**
+     * Builds the index of the first labels of an array
+     *
+     * @param labels Labels to index, the indexed ones must not change while
+     *               the index is used
+     * @param size   Number of labels to index
+     */
+    LabelIndex(final String[] labels, final int size) {
+        this.labels = labels;
+        int capacity = 16;
+        while (capacity < size * 2) {
+            capacity <<= 1;
+        }
+        table = new int[capacity];
+        Arrays.fill(table, -1);
+        add(size);
+    }
+
+    /**
+     * Indexes the labels following the indexed ones
+     *
+     * @param n Number of labels indexed once added, not above the length of
+     *          the array
+     */
+    void add(final int n) {
+        for (int i = size; i < n; i += 1) {
+            if ((used + 1) * 2 > table.length) {
+                rehash(table.length * 2);
+            }
+            insert(i);
+        }
+        size = Math.max(size, n);
+    }
+
+    /**
+     * Copies the index for another label array holding the same first labels
+     *
+     * @param l Label array, to index instead of the current one
+     * @return New index of l, this one being left unchanged
+     */
+    LabelIndex copy(final String[] l) {
+        final LabelIndex rv = new LabelIndex(l, 0);
+        rv.table = table.clone();
+        rv.used = used;
+        rv.size = size;
+        return rv;
+    }
+
+    /**
+     * Moves the index to a grown copy of its label array, once the old
+     * array is no longer used
+     *
+     * @param l Label array holding the same first labels
+     */
+    void rebind(final String[] l) {
+        labels = l;
+    }
+
+    private void insert(final int i) {
+        int slot = spread(labels[i].hashCode()) & (table.length - 1);
+        while (table[slot] != -1) {
+            if (labels[table[slot]].equals(labels[i])) {
+                return;
+            }
+            slot = (slot + 1) & (table.length - 1);
+        }
+        table[slot] = i;
+        used += 1;
+    }
+
+    private void rehash(final int capacity) {
+        final int[] old = table;
+        table = new int[capacity];
+        Arrays.fill(table, -1);
+        for (final int i : old) {
+            if (i != -1) {
+                int slot = spread(labels[i].hashCode()) & (capacity - 1);
+                while (table[slot] != -1) {
+                    slot = (slot + 1) & (capacity - 1);
+                }
+                table[slot] = i;
+            }
+        }
+    }
+
+    /**
+     * Checks if the index was built for a given label array
+     *
+     * @param l Label array
+     * @return true if l is the indexed array itself
+     */
+    boolean covers(final String[] l) {
+        return labels == l;
+    }
+
+    /**
+     * Finds the position of a label
+     *
+     * @param label Label to look for
+     * @return First position of the label, -1 if it is absent
+     */
+    int find(final String label) {
+        int slot = spread(label.hashCode()) & (table.length - 1);
+        int i;
+        while ((i = table[slot]) != -1) {
+            if (labels[i].equals(label)) {
+                return i;
+            }
+            slot = (slot + 1) & (table.length - 1);
+        }
+        return -1;
+    }
+
+    private static int spread(final int h) {
+        return h ^ (h >>> 16);
+    }
+}
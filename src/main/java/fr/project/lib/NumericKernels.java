@@ -0,0 +1,191 @@
+package fr.project.lib;
+
+/**
+ * Aggregation kernels over primitive column arrays.
+ * This class is the scalar implementation. When the
+ * {@code jdk.incubator.vector} module is resolved (run with
+ * {@code --add-modules jdk.incubator.vector}), {@link #get()} returns
+ * {@link VectorKernels} instead, which processes several values per
+ * instruction.
+ * <p>Both compute count, sum, min and max in one pass, together with the sums
+ * of the values and of their squares shifted by the first value, from which
+ * the variance is derived without the cancellation of a plain sum of squares.
+ */
+class NumericKernels {
+    // Kernels used by the library
+    private static final NumericKernels INSTANCE = load();
+
+    // Shortest run of bitmap words without nulls handed to the range kernel
+    private static final int DENSE_WORDS = 2;
+
+    NumericKernels() {
+    }
+
+    /**
+     * Gets the kernels chosen for the running JVM
+     *
+     * @return Vector kernels if available, scalar kernels otherwise
+     */
+    static NumericKernels get() {
+        return INSTANCE;
+    }
+
+    private static NumericKernels load() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                final NumericKernels k = (NumericKernels) Class.forName("fr.project.lib.VectorKernels")
+                        .getDeclaredConstructor().newInstance();
+                if (k.isVectorized()) {
+                    return k;
+                }
+            } catch (final ReflectiveOperationException | LinkageError e) {
+                // Fall back to the scalar kernels
+            }
+        }
+        return new NumericKernels();
+    }
+
+    /**
+     * Checks if the kernels use vector instructions
+     *
+     * @return false for the scalar kernels
+     */
+    boolean isVectorized() {
+        return false;
+    }
+
+    /**
+     * Computes the statistics of a range of int values
+     *
+     * @param a    Values to summarize
+     * @param from First index, inclusive
+     * @param to   Last index, exclusive
+     * @return New statistics
+     */
+    ColumnStats summarize(final int[] a, final int from, final int to) {
+        if (from == to) {
+            return new ColumnStats();
+        }
+        final int shift = a[from];
+        long s1 = 0;
+        double s2 = 0;
+        int min = shift;
+        int max = shift;
+        for (int i = from; i < to; i += 1) {
+            final int v = a[i];
+            final long d = (long) v - shift;
+            s1 += d;
+            s2 += (double) d * d;
+            min = Math.min(min, v);
+            max = Math.max(max, v);
+        }
+        return ColumnStats.of(to - from, 0, shift, s1, s1 + (long) shift * (to - from), s2, min, max);
+    }
+
+    /**
+     * Computes the statistics of a range of int values, skipping null rows.
+     * Null bits are skipped word by word in a single pass, without copying
+     * the values. Runs of at least {@link #DENSE_WORDS} words without nulls
+     * are handed to {@link #summarize(int[], int, int)}, so sparse nulls
+     * still leave most rows to the faster kernel.
+     *
+     * @param a     Values to summarize
+     * @param nulls Null bitmap of the values, a set bit for each null row
+     * @param from  First index, inclusive
+     * @param to    Last index, exclusive
+     * @return New statistics
+     */
+    final ColumnStats summarize(final int[] a, final long[] nulls, final int from, final int to) {
+        ColumnStats runs = new ColumnStats();
+        int shift = 0;
+        long count = 0;
+        long s1 = 0;
+        double s2 = 0;
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        int i = from;
+        while (i < to) {
+            if ((i & 63) == 0) {
+                int runEnd = i;
+                while (runEnd + 64 <= to && nulls[runEnd >>> 6] == 0) {
+                    runEnd += 64;
+                }
+                if (runEnd - i >= DENSE_WORDS * 64) {
+                    runs = ColumnStats.merge(runs, summarize(a, i, runEnd));
+                    i = runEnd;
+                    continue;
+                }
+            }
+            // Non-null rows of the word holding row i, from i on
+            final int word = i >>> 6;
+            final int wordEnd = Math.min(to, (word + 1) << 6);
+            long valid = ~nulls[word] & (-1L << i);
+            if ((wordEnd & 63) != 0) {
+                valid &= (1L << wordEnd) - 1;
+            }
+            for (; valid != 0; valid &= valid - 1) {
+                final int v = a[(word << 6) + Long.numberOfTrailingZeros(valid)];
+                if (count == 0) {
+                    shift = v;
+                }
+                final long d = (long) v - shift;
+                count += 1;
+                s1 += d;
+                s2 += (double) d * d;
+                min = Math.min(min, v);
+                max = Math.max(max, v);
+            }
+            i = wordEnd;
+        }
+        final ColumnStats rest = count == 0 ? new ColumnStats()
+                : ColumnStats.of(count, 0, shift, s1, s1 + (long) shift * count, s2, min, max);
+        final ColumnStats rv = ColumnStats.merge(runs, rest);
+        rv.nulls = to - from - rv.count;
+        return rv;
+    }
+
+    /**
+     * Computes the statistics of a range of float values, NaN being null
+     *
+     * @param a    Values to summarize
+     * @param from First index, inclusive
+     * @param to   Last index, exclusive
+     * @return New statistics
+     */
+    ColumnStats summarize(final float[] a, final int from, final int to) {
+        final int first = firstNumber(a, from, to);
+        if (first == to) {
+            return ColumnStats.of(0, to - from, 0, 0, 0, 0, Double.NaN, Double.NaN);
+        }
+        final float shift = a[first];
+        long count = 0;
+        double s1 = 0;
+        double s2 = 0;
+        float min = shift;
+        float max = shift;
+        for (int i = first; i < to; i += 1) {
+            final float v = a[i];
+            if (v == v) {
+                final double d = (double) v - shift;
+                count += 1;
+                s1 += d;
+                s2 += d * d;
+                min = Math.min(min, v);
+                max = Math.max(max, v);
+            }
+        }
+        return ColumnStats.of(count, to - from - count, shift, s1, s1 + (double) shift * count, s2, min, max);
+    }
+
+    /**
+     * Finds the first value of a range that is not NaN
+     *
+     * @return Its index, to if there is none
+     */
+    static int firstNumber(final float[] a, int i, final int to) {
+        while (i < to && a[i] != a[i]) {
+            i += 1;
+        }
+        return i;
+    }
+}
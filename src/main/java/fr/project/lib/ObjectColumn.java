@@ -0,0 +1,67 @@
+package fr.project.lib;
+
+import java.util.Arrays;
+
+/**
+ * Untyped column backed by an {@code Object[]}, used for frames built by hand
+ * before their column types are known
+ */
+final class ObjectColumn extends Column {
+    // Column values
+    Object[] values;
+
+    // Number of rows, the array may have room for more
+    int size;
+
+    ObjectColumn(final Object[] values) {
+        this.values = values;
+        this.size = values.length;
+    }
+
+    @Override
+    int size() {
+        return size;
+    }
+
+    @Override
+    Class<?> type() {
+        return Object.class;
+    }
+
+    @Override
+    Object value(final int row) {
+        return values[row];
+    }
+
+    @Override
+    void put(final int row, final Object value) {
+        values[row] = value;
+    }
+
+    @Override
+    void copyInto(final Column dest, final int at) {
+        System.arraycopy(values, 0, ((ObjectColumn) dest).values, at, size);
+    }
+
+    @Override
+    Column takeValues(final int[] rows) {
+        final Object[] rv = new Object[rows.length];
+        for (int i = 0; i < rows.length; i += 1) {
+            rv[i] = values[rows[i]];
+        }
+        return new ObjectColumn(rv);
+    }
+
+    @Override
+    void resize(final int rows) {
+        if (rows > values.length) {
+            values = Arrays.copyOf(values, capacity(values.length, rows));
+        }
+        size = rows;
+    }
+
+    @Override
+    Column copyValues() {
+        return new ObjectColumn(Arrays.copyOf(values, size));
+    }
+}
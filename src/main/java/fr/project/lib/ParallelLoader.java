@@ -0,0 +1,309 @@
+package fr.project.lib;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import fr.project.lib.utility.DelimitedTokenizer;
+import fr.project.lib.utility.FieldSink;
+
+/**
+ * Loads a delimited file on all the workers of {@link Execution#getPool()}.
+ * <p>The file is cut into byte ranges ending on record boundaries. A boundary
+ * is only taken outside of quoted strings, the quote state at the start of
+ * each range being known from the parity of the quotes before it. This
+ * assumes quotes only appear around fields or doubled inside them, as in
+ * RFC 4180. Each range is then tokenized and converted on its own worker, and
+ * the resulting columns are concatenated in file order.
+ */
+final class ParallelLoader {
+    // Smallest range handed to a worker
+    private static final long MIN_CHUNK = 1L << 20;
+
+    // Largest range, mapped in one go
+    private static final long MAX_CHUNK = 1L << 28;
+
+    // Bytes mapped at once while looking for the header or a boundary
+    private static final int SCAN_WINDOW = 1 << 16;
+
+    private ParallelLoader() {
+    }
+
+    /**
+     * Loads a file, splitting it into about four ranges per worker
+     *
+     * @param path      Path to input file
+     * @param delimiter Field separator
+     * @return New DataFrame built from the file
+     * @throws IOException If file reading fails
+     */
+    static DataFrame load(final Path path, final byte delimiter) throws IOException {
+        final long size = path.toFile().length();
+        final long workers = Execution.getPool().getParallelism();
+        return load(path, delimiter, Math.max(MIN_CHUNK, Math.min(MAX_CHUNK, size / (workers * 4))));
+    }
+
+    /**
+     * Loads a file with ranges of about the given size
+     *
+     * @param path      Path to input file
+     * @param delimiter Field separator
+     * @param chunk     Nominal size of a range in bytes
+     * @return New DataFrame built from the file
+     * @throws IOException If file reading fails
+     */
+    static DataFrame load(final Path path, final byte delimiter, final long chunk) throws IOException {
+        try (FileChannel fc = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = fc.size();
+            final FrameBuilder head = new FrameBuilder();
+            final long dataStart = readHeader(fc, size, delimiter, head);
+            if (head.header() == null || dataStart >= size) {
+                return head.build();
+            }
+            final String[] labels = head.header();
+            final long[] bounds = split(fc, dataStart, size, chunk);
+
+            // Tokenize every range and detect the types of its columns
+            final List<Callable<Range>> reads = new ArrayList<>();
+            for (int k = 0; k + 1 < bounds.length; k += 1) {
+                final long start = bounds[k];
+                final long end = bounds[k + 1];
+                if (start < end) {
+                    reads.add(() -> {
+                        final FrameBuilder fb = new FrameBuilder(labels);
+                        final DelimitedTokenizer tokenizer = new DelimitedTokenizer(delimiter, fb);
+                        tokenizer.feed(fc.map(MapMode.READ_ONLY, start, end - start));
+                        tokenizer.finish();
+                        final ColumnBuilder[] cols = fb.columns();
+                        final Class<?>[] found = new Class<?>[cols.length];
+                        for (int j = 0; j < cols.length; j += 1) {
+                            found[j] = cols[j].size() > 0 ? TypeInference.infer(cols[j]) : null;
+                        }
+                        return new Range(cols, found);
+                    });
+                }
+            }
+            final List<Range> ranges = invokeAll(reads);
+            final List<ColumnBuilder[]> raw = new ArrayList<>();
+            for (final Range r : ranges) {
+                raw.add(r.raw());
+            }
+
+            // Widen the types found in each range
+            final Class<?>[] types = new Class<?>[labels.length];
+            for (int j = 0; j < labels.length; j += 1) {
+                Class<?> type = null;
+                for (final Range r : ranges) {
+                    if (r.types()[j] != null) {
+                        type = TypeInference.widen(type, r.types()[j]);
+                    }
+                }
+                types[j] = type == null ? String.class : type;
+            }
+
+            // Convert every range
+            final List<Callable<Column[]>> conversions = new ArrayList<>();
+            for (final ColumnBuilder[] part : raw) {
+                conversions.add(() -> {
+                    final Column[] cols = new Column[part.length];
+                    for (int j = 0; j < part.length; j += 1) {
+                        cols[j] = DataFrame.convert(part[j], types[j]);
+                    }
+                    return cols;
+                });
+            }
+            final List<Column[]> converted = invokeAll(conversions);
+
+            // Convert again the columns whose sample did not hold
+            for (int j = 0; j < labels.length; j += 1) {
+                boolean mismatch = false;
+                for (final Column[] cols : converted) {
+                    mismatch |= cols[j] == null;
+                }
+                if (mismatch) {
+                    types[j] = infer(raw, j, 0);
+                    for (int k = 0; k < raw.size(); k += 1) {
+                        converted.get(k)[j] = DataFrame.convert(raw.get(k)[j], types[j]);
+                    }
+                }
+            }
+
+            // Stitch the ranges in file order
+            final Column[] cols = new Column[labels.length];
+            final Column[] pieces = new Column[converted.size()];
+            for (int j = 0; j < labels.length; j += 1) {
+                for (int k = 0; k < pieces.length; k += 1) {
+                    pieces[k] = converted.get(k)[j];
+                }
+                cols[j] = Column.concat(types[j], pieces);
+            }
+            return new DataFrame(labels, cols, labels.length == 0 ? 0 : cols[0].size());
+        }
+    }
+
+    /**
+     * Raw columns of a range with the types detected in each of them,
+     * null for empty columns
+     */
+    private record Range(ColumnBuilder[] raw, Class<?>[] types) {
+    }
+
+    /**
+     * Detects the type of a column over all the ranges
+     *
+     * @param raw  Raw columns of each range
+     * @param j    Index of the column
+     * @param rows Number of rows looked at in each range, 0 for all of them
+     * @return Widest type found
+     */
+    private static Class<?> infer(final List<ColumnBuilder[]> raw, final int j, final int rows) {
+        Class<?> type = null;
+        for (final ColumnBuilder[] part : raw) {
+            if (part[j].size() > 0) {
+                type = TypeInference.widen(type, TypeInference.infer(part[j], rows));
+            }
+        }
+        return type == null ? String.class : type;
+    }
+
+    /**
+     * Reads the first record of a file
+     *
+     * @param fc        Channel of the file
+     * @param size      Size of the file
+     * @param delimiter Field separator
+     * @param head      Builder receiving the header
+     * @return Offset of the first byte after the header
+     * @throws IOException If file reading fails
+     */
+    private static long readHeader(final FileChannel fc, final long size, final byte delimiter,
+            final FrameBuilder head) throws IOException {
+        final DelimitedTokenizer tokenizer = new DelimitedTokenizer(delimiter, new FieldSink() {
+            @Override
+            public void field(final int column, final byte[] buf, final int len, final boolean quoted) {
+                head.field(column, buf, len, quoted);
+            }
+
+            @Override
+            public boolean endRecord() {
+                head.endRecord();
+                return false;
+            }
+        });
+        for (long pos = 0; pos < size; pos += SCAN_WINDOW) {
+            final MappedByteBuffer buf = fc.map(MapMode.READ_ONLY, pos, Math.min(SCAN_WINDOW, size - pos));
+            if (!tokenizer.feed(buf)) {
+                return pos + buf.position();
+            }
+        }
+        tokenizer.finish();
+        return size;
+    }
+
+    /**
+     * Cuts the data part of a file into ranges ending on record boundaries
+     *
+     * @param fc        Channel of the file
+     * @param dataStart Offset of the first record after the header
+     * @param size      Size of the file
+     * @param chunk     Nominal size of a range
+     * @return Offsets where ranges start, followed by the file size
+     * @throws IOException If file reading fails
+     */
+    private static long[] split(final FileChannel fc, final long dataStart, final long size, final long chunk)
+            throws IOException {
+        final int n = (int) ((size - dataStart + chunk - 1) / chunk);
+
+        // Parity of the quotes found in each nominal range
+        final List<Callable<Boolean>> counts = new ArrayList<>();
+        for (int k = 0; k < n; k += 1) {
+            final long start = dataStart + k * chunk;
+            final long len = Math.min(chunk, size - start);
+            counts.add(() -> {
+                final MappedByteBuffer buf = fc.map(MapMode.READ_ONLY, start, len);
+                boolean odd = false;
+                for (int i = 0; i < len; i += 1) {
+                    if (buf.get(i) == '"') {
+                        odd = !odd;
+                    }
+                }
+                return odd;
+            });
+        }
+        final List<Boolean> odd = invokeAll(counts);
+
+        // Move each nominal start to the next record outside quotes
+        final long[] bounds = new long[n + 1];
+        bounds[0] = dataStart;
+        boolean inQuote = false;
+        for (int k = 1; k < n; k += 1) {
+            inQuote ^= odd.get(k - 1);
+            final long next = nextRecord(fc, dataStart + k * chunk, inQuote, size);
+            bounds[k] = Math.max(next, bounds[k - 1]);
+        }
+        bounds[n] = size;
+        return bounds;
+    }
+
+    /**
+     * Finds the start of the first record after an offset
+     *
+     * @param fc      Channel of the file
+     * @param from    Offset to start looking at
+     * @param inQuote true if from is inside a quoted string
+     * @param size    Size of the file
+     * @return Offset just after the first line break outside quotes, or size
+     * @throws IOException If file reading fails
+     */
+    private static long nextRecord(final FileChannel fc, final long from, boolean inQuote, final long size)
+            throws IOException {
+        for (long pos = from; pos < size; pos += SCAN_WINDOW) {
+            final MappedByteBuffer buf = fc.map(MapMode.READ_ONLY, pos, Math.min(SCAN_WINDOW, size - pos));
+            for (int i = 0; i < buf.limit(); i += 1) {
+                final byte b = buf.get(i);
+                if (b == '"') {
+                    inQuote = !inQuote;
+                } else if (!inQuote && (b == '\n' || b == '\r')) {
+                    return pos + i + 1;
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Runs tasks on the execution pool and waits for all of them
+     *
+     * @param <T>   Result type of the tasks
+     * @param tasks Tasks to run
+     * @return Results in task order
+     * @throws IOException If a task failed reading the file
+     */
+    private static <T> List<T> invokeAll(final List<Callable<T>> tasks) throws IOException {
+        final List<T> rv = new ArrayList<>(tasks.size());
+        try {
+            for (final Future<T> f : Execution.getPool().invokeAll(tasks)) {
+                rv.add(f.get());
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading", e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof IOException ioe) {
+                throw ioe;
+            } else if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IOException(e.getCause());
+        }
+        return rv;
+    }
+}
@@ -0,0 +1,130 @@
+package fr.project.lib;
+
+/**
+ * Selection of rows of a {@link DataFrame}, kept as a bitset with one bit
+ * per row in a {@code long[]}.
+ * Masks are created by the tests of {@link Where} and combined word by word
+ * with {@link #and}, {@link #or} and {@link #not}. They are immutable.
+ */
+public final class RowMask {
+    // Bit i % 64 of word i / 64 is set if row i is selected, bits past size are clear
+    final long[] words;
+
+    // Number of rows of the DataFrame
+    private final int size;
+
+    RowMask(final long[] words, final int size) {
+        this.words = words;
+        this.size = size;
+    }
+
+    /**
+     * Creates a mask selecting no row
+     *
+     * @param size Number of rows
+     * @return New empty mask
+     */
+    static RowMask none(final int size) {
+        return new RowMask(new long[(size + 63) >>> 6], size);
+    }
+
+    /**
+     * Gets the number of rows the mask applies to
+     * @return Row count of the DataFrame
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Counts the selected rows
+     * @return Number of set bits
+     */
+    public int count() {
+        int rv = 0;
+        for (final long w : words) {
+            rv += Long.bitCount(w);
+        }
+        return rv;
+    }
+
+    /**
+     * Checks if a row is selected
+     * @param row Index of the row
+     * @return true if the row is selected
+     * @throws IndexOutOfBoundsException if row is not in [0, size)
+     */
+    public boolean get(final int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row index out of bounds");
+        }
+        return (words[row >>> 6] & (1L << row)) != 0;
+    }
+
+    /**
+     * Selects the rows selected by both masks
+     * @param other Mask of the same size
+     * @return New mask
+     * @throws IllegalArgumentException if sizes differ
+     */
+    public RowMask and(final RowMask other) {
+        checkSize(other);
+        final long[] rv = new long[words.length];
+        for (int k = 0; k < rv.length; k += 1) {
+            rv[k] = words[k] & other.words[k];
+        }
+        return new RowMask(rv, size);
+    }
+
+    /**
+     * Selects the rows selected by either mask
+     * @param other Mask of the same size
+     * @return New mask
+     * @throws IllegalArgumentException if sizes differ
+     */
+    public RowMask or(final RowMask other) {
+        checkSize(other);
+        final long[] rv = new long[words.length];
+        for (int k = 0; k < rv.length; k += 1) {
+            rv[k] = words[k] | other.words[k];
+        }
+        return new RowMask(rv, size);
+    }
+
+    /**
+     * Selects the rows not selected by this mask
+     * @return New mask
+     */
+    public RowMask not() {
+        final long[] rv = new long[words.length];
+        for (int k = 0; k < rv.length; k += 1) {
+            rv[k] = ~words[k];
+        }
+        if ((size & 63) != 0) {
+            rv[rv.length - 1] &= (1L << size) - 1;
+        }
+        return new RowMask(rv, size);
+    }
+
+    /**
+     * Lists the selected rows
+     *
+     * @return Indices of the set bits, in increasing order
+     */
+    int[] rows() {
+        final int[] rv = new int[count()];
+        int n = 0;
+        for (int k = 0; k < words.length; k += 1) {
+            for (long w = words[k]; w != 0; w &= w - 1) {
+                rv[n++] = (k << 6) + Long.numberOfTrailingZeros(w);
+            }
+        }
+        return rv;
+    }
+
+    private void checkSize(final RowMask other) {
+        if (other.size != size) {
+            throw new IllegalArgumentException("Masks of " + size + " and " + other.size + " rows");
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package fr.project.lib;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+import fr.project.lib.utility.DelimitedTokenizer;
+import fr.project.lib.utility.FieldSink;
+
+/**
+ * Lazy read of a delimited file, created by {@link DataFrame#scan(String)}.
+ * Nothing is read until {@link #collect()}, which applies the selected
+ * columns, filters and row limit while the file is tokenized:
+ * <ul>
+ *   <li>fields of columns that are neither selected nor filtered are skipped
+ *       without being copied or decoded</li>
+ *   <li>filters see the raw text of their column, rows they reject are
+ *       dropped before type inference and conversion</li>
+ *   <li>tokenizing stops as soon as the row limit is reached</li>
+ * </ul>
+ */
+public final class Scan {
+    // File to read
+    private final Path path;
+
+    // Field separator of the file
+    private final byte delimiter;
+
+    // Columns kept, in output order, null for all of them
+    private String[] selected;
+
+    // Filters, all of which a row must pass
+    private final List<Filter> filters = new ArrayList<>();
+
+    // Largest number of rows kept
+    private int limit = Integer.MAX_VALUE;
+
+    /**
+     * Filter on the raw text of one column
+     */
+    private record Filter(String column, Predicate<String> test) {
+    }
+
+    Scan(final Path path, final byte delimiter) {
+        this.path = path;
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * Keeps only some columns
+     * @param columnNames Names of the columns, in the order of the result
+     * @return This scan
+     */
+    public Scan select(final String... columnNames) {
+        selected = columnNames.clone();
+        return this;
+    }
+
+    /**
+     * Keeps only the rows whose value in a column passes a test.
+     * The test receives the raw text of the field, "" for missing fields.
+     * @param columnName Name of the tested column, which need not be selected
+     * @param test       Test on the text of the field
+     * @return This scan
+     */
+    public Scan filter(final String columnName, final Predicate<String> test) {
+        filters.add(new Filter(columnName, test));
+        return this;
+    }
+
+    /**
+     * Keeps only the first rows passing the filters
+     * @param rows Largest number of rows kept
+     * @return This scan
+     * @throws IllegalArgumentException if rows is negative
+     */
+    public Scan limit(final int rows) {
+        if (rows < 0) {
+            throw new IllegalArgumentException("Negative row limit: " + rows);
+        }
+        limit = Math.min(limit, rows);
+        return this;
+    }
+
+    /**
+     * Reads the file
+     * @return New DataFrame with the selected columns of the kept rows
+     * @throws IOException If file reading fails
+     * @throws IllegalArgumentException if a selected or filtered column does
+     *         not exist
+     * @throws IllegalStateException if the file has no header
+     */
+    public DataFrame collect() throws IOException {
+        final Sink sink = new Sink();
+        DelimitedTokenizer.tokenize(path, delimiter, sink);
+        if (sink.labels == null) {
+            throw new IllegalStateException("Input has no header");
+        }
+        return new DataFrame(sink.labels, sink.builders, sink.rows);
+    }
+
+    /**
+     * Receives the fields of the file, keeping only what the scan needs
+     */
+    private final class Sink implements FieldSink {
+        // Labels of the header being read, then null
+        private List<String> headerFields = new ArrayList<>();
+
+        // Labels of the result, null until the header is read
+        String[] labels;
+
+        // Raw values of the result columns
+        ColumnBuilder[] builders;
+
+        // Result column of each file column, -1 if it is not selected
+        private int[] target;
+
+        // Filters testing each file column, null if there is none
+        private Filter[][] tests;
+
+        // Text of the tested fields of the current record
+        private String[] tested;
+
+        // Rows kept so far
+        int rows;
+
+        // Set once a field of the current record failed a filter
+        private boolean rejected;
+
+        @Override
+        public void field(final int column, final byte[] buf, final int len, final boolean quoted) {
+            if (headerFields != null) {
+                headerFields.add(new String(buf, 0, len, UTF_8));
+                return;
+            }
+            if (column >= target.length || rejected) {
+                return;
+            }
+            if (tests[column] != null) {
+                final String text = new String(buf, 0, len, UTF_8);
+                for (final Filter f : tests[column]) {
+                    rejected |= !f.test().test(text);
+                }
+                tested[column] = text;
+            }
+            if (target[column] != -1 && !rejected) {
+                if (len == 0 && !quoted) {
+                    builders[target[column]].addMissing();
+                } else {
+                    builders[target[column]].add(buf, len);
+                }
+            }
+        }
+
+        @Override
+        public boolean endRecord() {
+            if (headerFields != null) {
+                readHeader(headerFields.toArray(new String[0]));
+                headerFields = null;
+                return limit > 0;
+            }
+            // Missing tested fields are seen as empty
+            for (int j = 0; j < tests.length && !rejected; j += 1) {
+                if (tests[j] != null && tested[j] == null) {
+                    for (final Filter f : tests[j]) {
+                        rejected |= !f.test().test("");
+                    }
+                }
+            }
+            if (rejected) {
+                for (final ColumnBuilder b : builders) {
+                    b.truncate(rows);
+                }
+            } else {
+                rows += 1;
+                for (final ColumnBuilder b : builders) {
+                    if (b.size() < rows) {
+                        b.addMissing();
+                    }
+                }
+            }
+            rejected = false;
+            Arrays.fill(tested, null);
+            return rows < limit;
+        }
+
+        /**
+         * Resolves the selected and filtered columns against the header
+         */
+        private void readHeader(final String[] header) {
+            final LabelIndex index = new LabelIndex(header);
+            labels = selected != null ? selected : header;
+            builders = new ColumnBuilder[labels.length];
+            target = new int[header.length];
+            Arrays.fill(target, -1);
+            for (int k = 0; k < labels.length; k += 1) {
+                builders[k] = new ColumnBuilder();
+                final int j = selected != null ? index.find(labels[k]) : k;
+                if (j == -1) {
+                    throw new IllegalArgumentException("Column '" + labels[k] + "' not found");
+                }
+                if (target[j] != -1) {
+                    throw new IllegalArgumentException("Column '" + labels[k] + "' selected twice");
+                }
+                target[j] = k;
+            }
+            tests = new Filter[header.length][];
+            tested = new String[header.length];
+            for (final Filter f : filters) {
+                final int j = index.find(f.column());
+                if (j == -1) {
+                    throw new IllegalArgumentException("Column '" + f.column() + "' not found");
+                }
+                tests[j] = tests[j] == null ? new Filter[]{f} : append(tests[j], f);
+            }
+        }
+    }
+
+    private static Filter[] append(final Filter[] a, final Filter f) {
+        final Filter[] rv = Arrays.copyOf(a, a.length + 1);
+        rv[a.length] = f;
+        return rv;
+    }
+}
@@ -0,0 +1,328 @@
+package fr.project.lib;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.Cleaner;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Memory budget of the out-of-core DataFrames created by
+ * {@link DataFrame#segmented(int, SegmentCache)}.
+ * <p>Their columns are cut into segments of a fixed number of rows. Segments
+ * stay in memory while their estimated size fits in the budget; past it, the
+ * least recently used ones are spilled to files of a temporary directory and
+ * paged back in on their next access. Segments unchanged since they were
+ * last read are dropped without being written again.
+ * <p>One cache may serve several DataFrames, which then share its budget.
+ * Closing it deletes the spill files, after which its DataFrames must no
+ * longer be used. A cache left unclosed deletes them once it is garbage
+ * collected.
+ */
+public final class SegmentCache implements Closeable {
+    // Deletes the spill files of caches collected without being closed
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    // Largest estimated size of the resident segments, in bytes
+    private final long budget;
+
+    // Resident segments, least recently used first
+    private final LinkedHashMap<Segment, Segment> resident = new LinkedHashMap<>(16, 0.75f, true);
+    private long residentBytes;
+
+    // Spill files and their directory, deleted on close or collection
+    private final SpillFiles spillFiles;
+    private final Cleaner.Cleanable cleanable;
+
+    private long hits;
+    private long misses;
+    private long spills;
+    private boolean closed;
+
+    /**
+     * Creates a cache spilling to a new temporary directory
+     * @param budgetBytes Memory budget of the resident segments, in bytes
+     * @throws IllegalArgumentException if the budget is not positive
+     */
+    public SegmentCache(final long budgetBytes) {
+        this(budgetBytes, null);
+    }
+
+    /**
+     * Creates a cache spilling to a given directory
+     * @param budgetBytes Memory budget of the resident segments, in bytes
+     * @param directory   Existing directory receiving the spill files, null
+     *                    for a new temporary directory
+     * @throws IllegalArgumentException if the budget is not positive
+     */
+    public SegmentCache(final long budgetBytes, final Path directory) {
+        if (budgetBytes <= 0) {
+            throw new IllegalArgumentException("Memory budget must be positive: " + budgetBytes);
+        }
+        this.budget = budgetBytes;
+        this.spillFiles = new SpillFiles(directory);
+        this.cleanable = CLEANER.register(this, spillFiles);
+    }
+
+    /**
+     * Gets the memory budget
+     * @return Largest estimated size of the resident segments, in bytes
+     */
+    public long getBudget() {
+        return budget;
+    }
+
+    /**
+     * Gets the number of segment accesses served from memory
+     * @return Hit count
+     */
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of segment accesses read back from a spill file
+     * @return Miss count
+     */
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets the number of segments written to spill files
+     * @return Spill count
+     */
+    public synchronized long getSpills() {
+        return spills;
+    }
+
+    /**
+     * Gets the estimated size of the segments held in memory
+     * @return Size in bytes, above the budget only while a single segment is
+     *         larger than it
+     */
+    public synchronized long getResidentBytes() {
+        return residentBytes;
+    }
+
+    /**
+     * Deletes the spill files, and their directory if the cache created it
+     * @throws IOException If a file cannot be deleted
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        closed = true;
+        for (final Segment s : resident.keySet()) {
+            s.column = null;
+        }
+        resident.clear();
+        residentBytes = 0;
+        spillFiles.delete();
+        cleanable.clean();
+    }
+
+    /**
+     * Makes a new segment resident, spilling others if needed
+     *
+     * @param column Values of the segment
+     * @return New segment, never written yet
+     */
+    synchronized Segment add(final Column column) {
+        checkOpen();
+        final Segment s = new Segment();
+        s.dirty = true;
+        admit(s, column);
+        return s;
+    }
+
+    /**
+     * Gets the values of a segment for reading
+     *
+     * @param s Segment of this cache
+     * @return Resident values of the segment
+     * @throws UncheckedIOException If the spill file cannot be read
+     */
+    synchronized Column read(final Segment s) {
+        checkOpen();
+        if (s.column != null) {
+            hits += 1;
+            resident.get(s);
+            return s.column;
+        }
+        misses += 1;
+        final Column column;
+        try {
+            column = ColumnarFile.readColumn(s.file);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        admit(s, column);
+        return s.column;
+    }
+
+    /**
+     * Gets the values of a segment for writing, so it is spilled again
+     *
+     * @param s Segment of this cache
+     * @return Resident values of the segment
+     * @throws UncheckedIOException If the spill file cannot be read
+     */
+    synchronized Column write(final Segment s) {
+        final Column rv = read(s);
+        s.dirty = true;
+        rv.stats = null;
+        return rv;
+    }
+
+    private void admit(final Segment s, final Column column) {
+        s.column = column;
+        s.bytes = bytes(column);
+        resident.put(s, s);
+        residentBytes += s.bytes;
+        final Iterator<Segment> eldest = resident.keySet().iterator();
+        while (residentBytes > budget && eldest.hasNext()) {
+            final Segment e = eldest.next();
+            if (e == s) {
+                // The segment being accessed stays, even over the budget
+                break;
+            }
+            spill(e);
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Drops a resident segment, writing it first if it changed
+     */
+    private void spill(final Segment s) {
+        if (s.dirty) {
+            try {
+                if (s.file == null) {
+                    s.file = spillFiles.create();
+                }
+                ColumnarFile.writeColumn(s.column, s.file);
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            s.dirty = false;
+            spills += 1;
+        }
+        s.column = null;
+        residentBytes -= s.bytes;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Segment cache is closed");
+        }
+    }
+
+    /**
+     * Estimates the memory held by the values of a column
+     *
+     * @param c Column
+     * @return Size in bytes
+     */
+    static long bytes(final Column c) {
+        final long n = c.size();
+        long rv = c.nulls == null ? 0 : 8L * c.nulls.length;
+        if (c instanceof BooleanColumn) {
+            rv += n;
+        } else if (c instanceof final DictionaryColumn dc) {
+            rv += 4 * n;
+            for (final String s : dc.dictionary) {
+                rv += text(s);
+            }
+        } else if (c instanceof final StringColumn sc) {
+            for (final String s : sc.values) {
+                rv += text(s);
+            }
+        } else if (c instanceof ObjectColumn) {
+            rv += 24 * n;
+        } else {
+            rv += 4 * n;
+        }
+        return rv;
+    }
+
+    private static long text(final String s) {
+        // Reference, object headers and Latin-1 bytes
+        return s == null ? 8 : 56 + s.length();
+    }
+
+    /**
+     * Spill files of a cache, kept apart from it so that the cleaner does not
+     * hold the cache reachable
+     */
+    private static final class SpillFiles implements Runnable {
+        // Directory of the spill files, created on first spill if not given
+        private Path directory;
+        private final boolean ownDirectory;
+
+        // Spill files created so far
+        private final List<Path> files = new ArrayList<>();
+
+        SpillFiles(final Path directory) {
+            this.directory = directory;
+            this.ownDirectory = directory == null;
+        }
+
+        /**
+         * Creates an empty spill file, under a name no other cache uses
+         */
+        synchronized Path create() throws IOException {
+            if (directory == null) {
+                directory = Files.createTempDirectory("rakoun-segments");
+            }
+            final Path file = Files.createTempFile(directory, "segment-", ".rkdf");
+            files.add(file);
+            return file;
+        }
+
+        /**
+         * Deletes the spill files, and their directory if it was created
+         * @throws IOException If a file cannot be deleted
+         */
+        synchronized void delete() throws IOException {
+            for (final Iterator<Path> it = files.iterator(); it.hasNext();) {
+                Files.deleteIfExists(it.next());
+                it.remove();
+            }
+            if (ownDirectory && directory != null) {
+                Files.deleteIfExists(directory);
+                directory = null;
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                delete();
+            } catch (final IOException e) {
+                // Nothing to report to once the cache is unreachable
+            }
+        }
+    }
+
+    /**
+     * Fixed range of rows of a column, resident or spilled
+     */
+    static final class Segment {
+        // Values while resident, null once spilled
+        Column column;
+
+        // Spill file, null until first spilled
+        Path file;
+
+        // Set while the resident values differ from the spill file
+        boolean dirty;
+
+        // Estimated size of the resident values
+        long bytes;
+    }
+}
@@ -0,0 +1,235 @@
+package fr.project.lib;
+
+import java.util.Arrays;
+
+import fr.project.lib.SegmentCache.Segment;
+
+/**
+ * Column cut into segments of a fixed number of rows, kept in memory or
+ * spilled to disk by a {@link SegmentCache}.
+ * <p>Each segment is an ordinary column, with its own nulls and statistics,
+ * saved as a one-column {@link ColumnarFile} when spilled. Values are read and
+ * written through the segment holding their row, while the validity bitmap of
+ * the whole column stays in memory so nulls are checked without paging.
+ * Object values are spilled as their text.
+ */
+final class SegmentedColumn extends Column {
+    private final Class<?> type;
+    private final SegmentCache cache;
+
+    // Rows of every segment but the last, which may be shorter
+    private final int segmentRows;
+
+    private Segment[] segments = new Segment[0];
+    private int size;
+
+    /**
+     * Creates an empty column, to fill with {@link #append(Column)}
+     *
+     * @param type        Element type of the column
+     * @param segmentRows Rows of each segment
+     * @param cache       Cache holding the segments
+     */
+    SegmentedColumn(final Class<?> type, final int segmentRows, final SegmentCache cache) {
+        if (segmentRows <= 0) {
+            throw new IllegalArgumentException("Segment size must be positive: " + segmentRows);
+        }
+        this.type = type;
+        this.segmentRows = segmentRows;
+        this.cache = cache;
+    }
+
+    /**
+     * Cuts a column into segments
+     *
+     * @param c           Column to copy
+     * @param segmentRows Rows of each segment
+     * @param cache       Cache holding the segments
+     * @return New column with the values and nulls of c
+     */
+    static SegmentedColumn of(final Column c, final int segmentRows, final SegmentCache cache) {
+        final SegmentedColumn rv = new SegmentedColumn(c.type(), segmentRows, cache);
+        for (int from = 0; from < c.size(); from += segmentRows) {
+            final int[] rows = new int[Math.min(segmentRows, c.size() - from)];
+            for (int i = 0; i < rows.length; i += 1) {
+                rows[i] = from + i;
+            }
+            rv.append(c.take(rows));
+        }
+        return rv;
+    }
+
+    /**
+     * Adds a segment after the last one
+     *
+     * @param part Values of the segment, of the column type, not to be used
+     *             afterwards; every segment but the last must have the
+     *             segment size
+     * @throws IllegalArgumentException if the last segment is shorter than
+     *         the segment size, or part is larger
+     */
+    void append(final Column part) {
+        final int n = part.size();
+        if (size % segmentRows != 0 || n > segmentRows) {
+            throw new IllegalArgumentException("Segments must hold " + segmentRows + " rows, except the last one");
+        }
+        if (part.nulls != null || nulls != null) {
+            nulls = Arrays.copyOf(nulls == null ? new long[0] : nulls, words(size + n));
+            for (int i = 0; i < n; i += 1) {
+                if (part.isNull(i)) {
+                    nulls[(size + i) >>> 6] |= 1L << (size + i);
+                }
+            }
+        }
+        segments = Arrays.copyOf(segments, segments.length + 1);
+        segments[segments.length - 1] = cache.add(part);
+        size += n;
+    }
+
+    /**
+     * Gets the number of segments
+     *
+     * @return Segment count
+     */
+    int segmentCount() {
+        return segments.length;
+    }
+
+    /**
+     * Gets the first row of a segment
+     *
+     * @param k Index of the segment
+     * @return Row of the column
+     */
+    int segmentStart(final int k) {
+        return k * segmentRows;
+    }
+
+    /**
+     * Gets the values of a segment for reading, paging it in if needed
+     *
+     * @param k Index of the segment
+     * @return Column holding the rows of the segment
+     */
+    Column segment(final int k) {
+        return cache.read(segments[k]);
+    }
+
+    @Override
+    int size() {
+        return size;
+    }
+
+    @Override
+    Class<?> type() {
+        return type;
+    }
+
+    @Override
+    Object value(final int row) {
+        return segment(row / segmentRows).value(row % segmentRows);
+    }
+
+    @Override
+    void put(final int row, final Object value) {
+        cache.write(segments[row / segmentRows]).set(row % segmentRows, value);
+    }
+
+    @Override
+    void setNull(final int row) {
+        super.setNull(row);
+        cache.write(segments[row / segmentRows]).setNull(row % segmentRows);
+    }
+
+    @Override
+    void hideNulls() {
+        if (nulls == null) {
+            return;
+        }
+        for (int row = 0; row < size; row += 1) {
+            if (isNull(row)) {
+                final Column part = cache.write(segments[row / segmentRows]);
+                part.setNull(row % segmentRows);
+                part.hideNulls();
+            }
+        }
+    }
+
+    @Override
+    void appendTo(final int row, final StringBuilder sb) {
+        segment(row / segmentRows).appendTo(row % segmentRows, sb);
+    }
+
+    @Override
+    Column copyValues() {
+        final SegmentedColumn rv = new SegmentedColumn(type, segmentRows, cache);
+        for (int k = 0; k < segments.length; k += 1) {
+            rv.append(segment(k).copy());
+        }
+        return rv;
+    }
+
+    /**
+     * Gathers rows into new segments. The rows of each new segment are
+     * read segment by segment, so every segment they come from is paged in
+     * once per new segment.
+     */
+    @Override
+    Column takeValues(final int[] rows) {
+        final SegmentedColumn rv = new SegmentedColumn(type, segmentRows, cache);
+        final int[] count = new int[segments.length + 1];
+        for (int from = 0; from < rows.length; from += segmentRows) {
+            final int n = Math.min(segmentRows, rows.length - from);
+            // Positions of the new segment, sorted by the segment of their row
+            Arrays.fill(count, 0);
+            for (int i = from; i < from + n; i += 1) {
+                count[rows[i] / segmentRows + 1] += 1;
+            }
+            for (int k = 0; k < segments.length; k += 1) {
+                count[k + 1] += count[k];
+            }
+            final int[] order = new int[n];
+            for (int i = from; i < from + n; i += 1) {
+                order[count[rows[i] / segmentRows]++] = i;
+            }
+            final Column part = Column.of(type, n);
+            Column source = null;
+            int current = -1;
+            for (final int i : order) {
+                final int k = rows[i] / segmentRows;
+                if (k != current) {
+                    source = segment(k);
+                    current = k;
+                }
+                part.put(i - from, source.value(rows[i] % segmentRows));
+            }
+            rv.append(part);
+        }
+        return rv;
+    }
+
+    /**
+     * Grows the last segment up to the segment size, then adds new ones
+     */
+    @Override
+    void resize(final int rows) {
+        while (size < rows) {
+            final int room = segmentRows - size % segmentRows;
+            final int n = Math.min(room, rows - size);
+            if (room < segmentRows) {
+                cache.write(segments[segments.length - 1]).extend(n);
+            } else {
+                segments = Arrays.copyOf(segments, segments.length + 1);
+                segments[segments.length - 1] = cache.add(Column.of(type, n));
+            }
+            size += n;
+        }
+    }
+
+    @Override
+    void copyInto(final Column dest, final int at) {
+        for (int k = 0; k < segments.length; k += 1) {
+            segment(k).copyInto(dest, at + segmentStart(k));
+        }
+    }
+}
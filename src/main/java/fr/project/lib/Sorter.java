@@ -0,0 +1,262 @@
+package fr.project.lib;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Computes the row order of a DataFrame sorted on some columns.
+ * <p>Each key column is turned into one int per row whose signed order is the
+ * wanted order: the values of Integer and LocalDate columns, the bits of
+ * floats rearranged so that they compare as ints, and ranks for text. The
+ * row permutation is then sorted stably on each key, last key first, so that
+ * ties on a key keep the order given by the following keys. Each pass is a
+ * radix sort, or for long columns a parallel sort of the keys packed with
+ * the row positions into longs. Null rows are then moved after the others
+ * by a stable partition, since every int may be the key of a value.
+ */
+final class Sorter {
+    // Bits sorted per radix pass
+    private static final int DIGIT = 16;
+
+    private Sorter() {
+    }
+
+    /**
+     * Sorts the rows of some columns
+     *
+     * @param keys      Key columns, most significant first
+     * @param ascending Direction of each key
+     * @param rows      Number of rows
+     * @return Row indices in sorted order, equal rows in their original order
+     * @throws IllegalArgumentException if a column cannot be sorted
+     */
+    static int[] order(final Column[] keys, final boolean[] ascending, final int rows) {
+        int[] perm = new int[rows];
+        for (int i = 0; i < rows; i += 1) {
+            perm[i] = i;
+        }
+        for (int k = keys.length - 1; k >= 0; k -= 1) {
+            final int[] key = sortKeys(keys[k], ascending[k]);
+            perm = Execution.reduceInParallel(rows) ? parallelSort(perm, key) : radixSort(perm, key);
+            if (keys[k].nulls != null) {
+                perm = nullsLast(perm, keys[k]);
+            }
+        }
+        return perm;
+    }
+
+    /**
+     * Maps every value of a column to an int with the same order.
+     * NaN values come last in both directions. Null rows get key 0 and must
+     * be told apart with {@link Column#isNull(int)}.
+     *
+     * @param c         Column to sort on
+     * @param ascending Direction of the sort
+     * @return Key of each row
+     */
+    static int[] sortKeys(final Column c, final boolean ascending) {
+        final int[] rv = valueKeys(c, ascending);
+        if (c.nulls != null) {
+            for (int i = 0; i < rv.length; i += 1) {
+                if (c.isNull(i)) {
+                    rv[i] = 0;
+                }
+            }
+        }
+        return rv;
+    }
+
+    /**
+     * Moves the null rows of a column after the others, keeping the order
+     * of both
+     *
+     * @param perm Rows in their current order
+     * @param c    Column holding nulls
+     * @return Rows with the null ones last
+     */
+    static int[] nullsLast(final int[] perm, final Column c) {
+        final int[] rv = new int[perm.length];
+        int at = 0;
+        for (final int p : perm) {
+            if (!c.isNull(p)) {
+                rv[at++] = p;
+            }
+        }
+        for (final int p : perm) {
+            if (c.isNull(p)) {
+                rv[at++] = p;
+            }
+        }
+        return rv;
+    }
+
+    private static int[] valueKeys(final Column c, final boolean ascending) {
+        final int n = c.size();
+        final int[] rv = new int[n];
+        if (c instanceof final IntColumn ic) {
+            System.arraycopy(ic.values, 0, rv, 0, n);
+        } else if (c instanceof final DateColumn dc) {
+            System.arraycopy(dc.days, 0, rv, 0, n);
+        } else if (c instanceof final FloatColumn fc) {
+            for (int i = 0; i < n; i += 1) {
+                final float f = fc.values[i];
+                if (f != f) {
+                    rv[i] = Integer.MAX_VALUE;
+                    continue;
+                }
+                // Negative floats compare reversed as ints, flip their magnitude bits
+                final int bits = Float.floatToIntBits(f + 0f);
+                final int k = bits ^ ((bits >> 31) & 0x7fffffff);
+                rv[i] = ascending ? k : ~k;
+            }
+            return rv;
+        } else if (c instanceof final BooleanColumn bc) {
+            for (int i = 0; i < n; i += 1) {
+                rv[i] = bc.values[i] ? 1 : 0;
+            }
+        } else if (c instanceof final DictionaryColumn dc) {
+            final int[] rank = ranks(dc.dictionary, dc.distinct);
+            for (int i = 0; i < n; i += 1) {
+                rv[i] = rank[dc.codes[i]];
+            }
+        } else if (c instanceof final StringColumn sc) {
+            System.arraycopy(ranks(sc.values, n), 0, rv, 0, n);
+        } else if (c instanceof final SegmentedColumn sc) {
+            return segmentKeys(sc, ascending);
+        } else {
+            throw new IllegalArgumentException("Cannot sort a column of type " + c.type().getSimpleName());
+        }
+        if (!ascending) {
+            for (int i = 0; i < n; i += 1) {
+                rv[i] = ~rv[i];
+            }
+        }
+        return rv;
+    }
+
+    /**
+     * Maps the values of a segmented column to sort keys, one segment at a
+     * time. Text is ranked among the distinct values of every segment, so
+     * only those are held in memory at once.
+     *
+     * @param c         Column to sort on
+     * @param ascending Direction of the sort
+     * @return Key of each row
+     */
+    private static int[] segmentKeys(final SegmentedColumn c, final boolean ascending) {
+        final int[] rv = new int[c.size()];
+        if (c.type() != String.class) {
+            for (int k = 0; k < c.segmentCount(); k += 1) {
+                final Column part = c.segment(k);
+                System.arraycopy(sortKeys(part, ascending), 0, rv, c.segmentStart(k), part.size());
+            }
+            return rv;
+        }
+        final Set<String> values = new HashSet<>();
+        for (int k = 0; k < c.segmentCount(); k += 1) {
+            final Column part = c.segment(k);
+            for (int i = 0; i < part.size(); i += 1) {
+                if (part.get(i) != null) {
+                    values.add((String) part.get(i));
+                }
+            }
+        }
+        final String[] distinct = values.toArray(new String[0]);
+        Arrays.sort(distinct);
+        for (int k = 0; k < c.segmentCount(); k += 1) {
+            final Column part = c.segment(k);
+            final int start = c.segmentStart(k);
+            for (int i = 0; i < part.size(); i += 1) {
+                final Object v = part.get(i);
+                final int rank = v == null ? 0 : Arrays.binarySearch(distinct, v);
+                rv[start + i] = ascending || v == null ? rank : ~rank;
+            }
+        }
+        return rv;
+    }
+
+    /**
+     * Ranks strings in natural order, equal strings sharing their rank
+     *
+     * @param values Strings to rank
+     * @param n      Number of strings to rank, from the first one
+     * @return Rank of each string, the same order as the strings
+     */
+    private static int[] ranks(final String[] values, final int n) {
+        final Comparator<String> order = Comparator.nullsLast(Comparator.naturalOrder());
+        final String[] distinct = Arrays.copyOf(values, n);
+        Arrays.sort(distinct, order);
+        int m = 0;
+        for (int i = 0; i < distinct.length; i += 1) {
+            if (m == 0 || order.compare(distinct[i], distinct[m - 1]) != 0) {
+                distinct[m++] = distinct[i];
+            }
+        }
+        final int[] rv = new int[n];
+        for (int i = 0; i < n; i += 1) {
+            rv[i] = Arrays.binarySearch(distinct, 0, m, values[i], order);
+        }
+        return rv;
+    }
+
+    /**
+     * Sorts a permutation stably on a key, with an LSD radix sort
+     *
+     * @param perm Rows in their current order
+     * @param key  Key of each row
+     * @return Rows sorted on the key
+     */
+    static int[] radixSort(int[] perm, final int[] key) {
+        final int n = perm.length;
+        int[] tmp = new int[n];
+        final int[] count = new int[(1 << DIGIT) + 1];
+        for (int shift = 0; shift < 32; shift += DIGIT) {
+            Arrays.fill(count, 0);
+            for (final int p : perm) {
+                count[digit(key[p], shift) + 1] += 1;
+            }
+            // A pass where every row has the same digit leaves the order as is
+            if (n == 0 || count[digit(key[perm[0]], shift) + 1] == n) {
+                continue;
+            }
+            for (int d = 1; d < count.length; d += 1) {
+                count[d] += count[d - 1];
+            }
+            for (final int p : perm) {
+                tmp[count[digit(key[p], shift)]++] = p;
+            }
+            final int[] swap = perm;
+            perm = tmp;
+            tmp = swap;
+        }
+        return perm;
+    }
+
+    private static int digit(final int key, final int shift) {
+        // Flipping the sign bit makes the unsigned order of keys their signed order
+        return ((key ^ Integer.MIN_VALUE) >>> shift) & ((1 << DIGIT) - 1);
+    }
+
+    /**
+     * Sorts a permutation stably on a key, on the execution pool
+     *
+     * @param perm Rows in their current order
+     * @param key  Key of each row
+     * @return Rows sorted on the key
+     */
+    static int[] parallelSort(final int[] perm, final int[] key) {
+        // Positions in the low bits break ties in the current order
+        final long[] packed = new long[perm.length];
+        for (int i = 0; i < packed.length; i += 1) {
+            packed[i] = ((long) key[perm[i]] << 32) | i;
+        }
+        Execution.getPool().submit(() -> Arrays.parallelSort(packed)).join();
+        final int[] rv = new int[perm.length];
+        for (int i = 0; i < rv.length; i += 1) {
+            rv[i] = perm[(int) packed[i]];
+        }
+        return rv;
+    }
+}
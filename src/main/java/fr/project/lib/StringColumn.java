@@ -0,0 +1,66 @@
+package fr.project.lib;
+
+import java.util.Arrays;
+
+/**
+ * Column of String values backed by a {@code String[]}
+ */
+final class StringColumn extends Column {
+    // Column values
+    String[] values;
+
+    // Number of rows, the array may have room for more
+    int size;
+
+    StringColumn(final String[] values) {
+        this.values = values;
+        this.size = values.length;
+    }
+
+    @Override
+    int size() {
+        return size;
+    }
+
+    @Override
+    Class<?> type() {
+        return String.class;
+    }
+
+    @Override
+    Object value(final int row) {
+        return values[row];
+    }
+
+    @Override
+    void put(final int row, final Object value) {
+        values[row] = (String) value;
+    }
+
+    @Override
+    void copyInto(final Column dest, final int at) {
+        System.arraycopy(values, 0, ((StringColumn) dest).values, at, size);
+    }
+
+    @Override
+    Column takeValues(final int[] rows) {
+        final String[] rv = new String[rows.length];
+        for (int i = 0; i < rows.length; i += 1) {
+            rv[i] = values[rows[i]];
+        }
+        return new StringColumn(rv);
+    }
+
+    @Override
+    void resize(final int rows) {
+        if (rows > values.length) {
+            values = Arrays.copyOf(values, capacity(values.length, rows));
+        }
+        size = rows;
+    }
+
+    @Override
+    Column copyValues() {
+        return new StringColumn(Arrays.copyOf(values, size));
+    }
+}
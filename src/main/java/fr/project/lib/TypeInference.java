@@ -0,0 +1,235 @@
+package fr.project.lib;
+
+import java.time.LocalDate;
+
+/**
+ * Detects the type of raw text columns.
+ * Values are classified by scanning their UTF-8 bytes, without parsing them
+ * or throwing exceptions. The types of the values of a column are merged by
+ * widening: Integer widens to Float, and any other mix widens to String.
+ * Missing values are null whatever the type, so they are not looked at.
+ */
+public final class TypeInference {
+    // Number of leading rows looked at, 0 for the whole column
+    private static volatile int sampleRows = 0;
+
+    private TypeInference() {
+    }
+
+    /**
+     * Gets the number of leading rows looked at to detect a column type
+     * @return Row count, 0 if the whole column is looked at (the default)
+     */
+    public static int getSampleRows() {
+        return sampleRows;
+    }
+
+    /**
+     * Sets the number of leading rows looked at to detect a column type.
+     * If a later value does not match the sampled type, the whole column is
+     * looked at again.
+     * @param rows Row count, 0 or less to look at the whole column
+     */
+    public static void setSampleRows(final int rows) {
+        sampleRows = Math.max(0, rows);
+    }
+
+    /**
+     * Detects the type of a raw column from its sampled rows
+     * @param raw Raw text of the column
+     * @return Widest type of the sampled values, String for a column without
+     *         values
+     */
+    static Class<?> infer(final ColumnBuilder raw) {
+        return infer(raw, sampleRows);
+    }
+
+    /**
+     * Detects the type of a raw column from its leading rows
+     * @param raw  Raw text of the column
+     * @param rows Number of rows to look at, 0 for the whole column
+     * @return Widest type of the values looked at, String for a column
+     *         without values
+     */
+    static Class<?> infer(final ColumnBuilder raw, final int rows) {
+        final int n = rows <= 0 ? raw.size() : Math.min(rows, raw.size());
+        final byte[] b = raw.bytes();
+        Class<?> type = null;
+        for (int i = 0; i < n && type != String.class; i += 1) {
+            if (!raw.isMissing(i)) {
+                type = widen(type, classify(b, raw.start(i), raw.end(i)));
+            }
+        }
+        return type == null ? String.class : type;
+    }
+
+    /**
+     * Gets the narrowest type able to hold values of two types
+     * @param a First type, null if no value was seen yet
+     * @param b Second type
+     * @return Common type
+     */
+    static Class<?> widen(final Class<?> a, final Class<?> b) {
+        if (a == null || a == b) {
+            return b;
+        } else if ((a == Integer.class && b == Float.class) || (a == Float.class && b == Integer.class)) {
+            return Float.class;
+        }
+        return String.class;
+    }
+
+    /**
+     * Detects the type of a single value, most specific type first
+     * @param b     Buffer holding the UTF-8 bytes of the value
+     * @param start Offset of the first byte
+     * @param end   Offset just after the last byte
+     * @return Integer, Float, Boolean, LocalDate or String
+     */
+    static Class<?> classify(final byte[] b, final int start, final int end) {
+        if (isInt(b, start, end)) {
+            return Integer.class;
+        } else if (isFloat(b, start, end)) {
+            return Float.class;
+        } else if (isBool(b, start, end)) {
+            return Boolean.class;
+        } else if (isDate(b, start, end)) {
+            return LocalDate.class;
+        }
+        return String.class;
+    }
+
+    /**
+     * Checks for an optionally signed decimal integer in the int range
+     */
+    static boolean isInt(final byte[] b, int i, final int end) {
+        boolean negative = false;
+        if (i < end && (b[i] == '-' || b[i] == '+')) {
+            negative = b[i] == '-';
+            i += 1;
+        }
+        if (i == end) {
+            return false;
+        }
+        final long limit = negative ? 1L << 31 : (1L << 31) - 1;
+        long value = 0;
+        for (; i < end; i += 1) {
+            final int d = b[i] - '0';
+            if (d < 0 || d > 9) {
+                return false;
+            }
+            value = value * 10 + d;
+            if (value > limit) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks for a decimal floating point number, with optional sign,
+     * fraction and exponent, or for NaN and Infinity
+     */
+    static boolean isFloat(final byte[] b, int i, final int end) {
+        if (i < end && (b[i] == '-' || b[i] == '+')) {
+            i += 1;
+        }
+        if (matches(b, i, end, "NaN") || matches(b, i, end, "Infinity")) {
+            return true;
+        }
+        int digits = 0;
+        while (i < end && isDigit(b[i])) {
+            i += 1;
+            digits += 1;
+        }
+        if (i < end && b[i] == '.') {
+            i += 1;
+            while (i < end && isDigit(b[i])) {
+                i += 1;
+                digits += 1;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        if (i < end && (b[i] == 'e' || b[i] == 'E')) {
+            i += 1;
+            if (i < end && (b[i] == '-' || b[i] == '+')) {
+                i += 1;
+            }
+            if (i == end) {
+                return false;
+            }
+            while (i < end && isDigit(b[i])) {
+                i += 1;
+            }
+        }
+        return i == end;
+    }
+
+    /**
+     * Checks for true, false, True or False
+     */
+    static boolean isBool(final byte[] b, final int start, final int end) {
+        return matches(b, start, end, "true") || matches(b, start, end, "false")
+                || matches(b, start, end, "True") || matches(b, start, end, "False");
+    }
+
+    /**
+     * Checks for an existing date written yyyy-MM-dd or yyyy/MM/dd
+     */
+    static boolean isDate(final byte[] b, final int i, final int end) {
+        if (end - i != 10 || !isSeparator(b[i + 4]) || !isSeparator(b[i + 7])) {
+            return false;
+        }
+        final int year = digits(b, i, 4);
+        final int month = digits(b, i + 5, 2);
+        final int day = digits(b, i + 8, 2);
+        return year >= 0 && month >= 1 && month <= 12 && day >= 1 && day <= daysInMonth(year, month);
+    }
+
+    /**
+     * Gets the number of days of a month of the ISO calendar
+     */
+    static int daysInMonth(final int year, final int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    private static boolean isSeparator(final byte c) {
+        return c == '-' || c == '/';
+    }
+
+    private static boolean isDigit(final byte c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Reads a fixed number of decimal digits
+     * @return The value, -1 if a byte is not a digit
+     */
+    private static int digits(final byte[] b, final int start, final int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i += 1) {
+            if (!isDigit(b[i])) {
+                return -1;
+            }
+            value = value * 10 + b[i] - '0';
+        }
+        return value;
+    }
+
+    private static boolean matches(final byte[] b, final int start, final int end, final String word) {
+        if (end - start != word.length()) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i += 1) {
+            if (b[start + i] != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
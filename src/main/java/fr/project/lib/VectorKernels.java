@@ -0,0 +1,115 @@
+package fr.project.lib;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Aggregation kernels using the {@code jdk.incubator.vector} API.
+ * Only loaded through {@link NumericKernels#get()}, once the module is known
+ * to be resolved. Sums are accumulated in long or double lanes, so results
+ * match the scalar kernels up to the order of floating point additions.
+ */
+final class VectorKernels extends NumericKernels {
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+
+    // Number of wide lanes filled by the values of one narrow vector
+    private static final int PARTS = INTS.length() / LONGS.length();
+
+    @Override
+    boolean isVectorized() {
+        // Below 4 lanes the conversions cost more than they save
+        return INTS.length() >= 4 && INTS.length() == FLOATS.length();
+    }
+
+    @Override
+    ColumnStats summarize(final int[] a, final int from, final int to) {
+        if (from == to) {
+            return new ColumnStats();
+        }
+        final int shift = a[from];
+        final LongVector k = LongVector.broadcast(LONGS, shift);
+        LongVector s1 = LongVector.zero(LONGS);
+        DoubleVector s2 = DoubleVector.zero(DOUBLES);
+        IntVector min = IntVector.broadcast(INTS, shift);
+        IntVector max = min;
+        int i = from;
+        for (final int bound = from + INTS.loopBound(to - from); i < bound; i += INTS.length()) {
+            final IntVector v = IntVector.fromArray(INTS, a, i);
+            min = min.min(v);
+            max = max.max(v);
+            for (int p = 0; p < PARTS; p += 1) {
+                final LongVector d = ((LongVector) v.convertShape(VectorOperators.I2L, LONGS, p)).sub(k);
+                s1 = s1.add(d);
+                final DoubleVector dd = (DoubleVector) d.convertShape(VectorOperators.L2D, DOUBLES, 0);
+                s2 = dd.fma(dd, s2);
+            }
+        }
+        long sum1 = s1.reduceLanes(VectorOperators.ADD);
+        double sum2 = s2.reduceLanes(VectorOperators.ADD);
+        int lo = min.reduceLanes(VectorOperators.MIN);
+        int hi = max.reduceLanes(VectorOperators.MAX);
+        for (; i < to; i += 1) {
+            final long d = (long) a[i] - shift;
+            sum1 += d;
+            sum2 += (double) d * d;
+            lo = Math.min(lo, a[i]);
+            hi = Math.max(hi, a[i]);
+        }
+        return ColumnStats.of(to - from, 0, shift, sum1, sum1 + (long) shift * (to - from), sum2, lo, hi);
+    }
+
+    @Override
+    ColumnStats summarize(final float[] a, final int from, final int to) {
+        final int first = firstNumber(a, from, to);
+        if (first == to) {
+            return ColumnStats.of(0, to - from, 0, 0, 0, 0, Double.NaN, Double.NaN);
+        }
+        final float shift = a[first];
+        final FloatVector k = FloatVector.broadcast(FLOATS, shift);
+        final DoubleVector kd = DoubleVector.broadcast(DOUBLES, shift);
+        long count = 0;
+        DoubleVector s1 = DoubleVector.zero(DOUBLES);
+        DoubleVector s2 = DoubleVector.zero(DOUBLES);
+        FloatVector min = k;
+        FloatVector max = k;
+        int i = first;
+        for (final int bound = first + FLOATS.loopBound(to - first); i < bound; i += FLOATS.length()) {
+            final FloatVector raw = FloatVector.fromArray(FLOATS, a, i);
+            final VectorMask<Float> number = raw.compare(VectorOperators.EQ, raw);
+            // NaN lanes are replaced by the shift, adding nothing to the sums
+            final FloatVector v = k.blend(raw, number);
+            count += number.trueCount();
+            min = min.min(v);
+            max = max.max(v);
+            for (int p = 0; p < PARTS; p += 1) {
+                final DoubleVector d = ((DoubleVector) v.convertShape(VectorOperators.F2D, DOUBLES, p)).sub(kd);
+                s1 = s1.add(d);
+                s2 = d.fma(d, s2);
+            }
+        }
+        double sum1 = s1.reduceLanes(VectorOperators.ADD);
+        double sum2 = s2.reduceLanes(VectorOperators.ADD);
+        float lo = min.reduceLanes(VectorOperators.MIN);
+        float hi = max.reduceLanes(VectorOperators.MAX);
+        for (; i < to; i += 1) {
+            final float v = a[i];
+            if (v == v) {
+                final double d = (double) v - shift;
+                count += 1;
+                sum1 += d;
+                sum2 += d * d;
+                lo = Math.min(lo, v);
+                hi = Math.max(hi, v);
+            }
+        }
+        return ColumnStats.of(count, to - from - count, shift, sum1, sum1 + (double) shift * count, sum2, lo, hi);
+    }
+}
@@ -0,0 +1,305 @@
+package fr.project.lib;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Tests on the values of one column, created by {@link DataFrame#where(String)}.
+ * Each test scans the primitive array of the column once and returns the
+ * matching rows as a {@link RowMask}. Comparisons on Integer, Float and
+ * LocalDate columns are turned into a single inclusive range check, and tests
+ * on dictionary-encoded text are evaluated once per distinct value. Null
+ * values never match.
+ */
+public final class Where {
+    // Tested column
+    private final Column column;
+
+    // Label of the column, for error messages
+    private final String label;
+
+    Where(final Column column, final String label) {
+        this.column = column;
+        this.label = label;
+    }
+
+    /**
+     * Selects the rows equal to a value
+     * @param value Number for Integer and Float columns, LocalDate for dates,
+     *              Boolean for booleans, any object for the others
+     * @return Mask of the matching rows
+     * @throws IllegalArgumentException if the value cannot be compared with the column
+     */
+    public RowMask eq(final Object value) {
+        if (column instanceof final BooleanColumn bc && value instanceof final Boolean b) {
+            final boolean[] v = bc.values;
+            final int n = column.size();
+            final long[] w = new long[(n + 63) >>> 6];
+            for (int i = 0; i < n; i += 1) {
+                if (v[i] == b) {
+                    w[i >>> 6] |= 1L << i;
+                }
+            }
+            return mask(w, n);
+        } else if (isOrdered()) {
+            return range(value, true, value, true);
+        }
+        return test(value::equals);
+    }
+
+    /**
+     * Selects the rows strictly below a value
+     * @param value Bound, see {@link #eq(Object)}
+     * @return Mask of the matching rows
+     * @throws IllegalArgumentException if the value cannot be compared with the column
+     */
+    public RowMask lt(final Object value) {
+        return range(null, false, value, false);
+    }
+
+    /**
+     * Selects the rows below or equal to a value
+     * @param value Bound, see {@link #eq(Object)}
+     * @return Mask of the matching rows
+     * @throws IllegalArgumentException if the value cannot be compared with the column
+     */
+    public RowMask le(final Object value) {
+        return range(null, false, value, true);
+    }
+
+    /**
+     * Selects the rows strictly above a value
+     * @param value Bound, see {@link #eq(Object)}
+     * @return Mask of the matching rows
+     * @throws IllegalArgumentException if the value cannot be compared with the column
+     */
+    public RowMask gt(final Object value) {
+        return range(value, false, null, false);
+    }
+
+    /**
+     * Selects the rows above or equal to a value
+     * @param value Bound, see {@link #eq(Object)}
+     * @return Mask of the matching rows
+     * @throws IllegalArgumentException if the value cannot be compared with the column
+     */
+    public RowMask ge(final Object value) {
+        return range(value, true, null, false);
+    }
+
+    /**
+     * Selects the rows between two values, both included
+     * @param low  Lower bound, see {@link #eq(Object)}
+     * @param high Upper bound
+     * @return Mask of the matching rows
+     * @throws IllegalArgumentException if a bound cannot be compared with the column
+     */
+    public RowMask between(final Object low, final Object high) {
+        return range(low, true, high, true);
+    }
+
+    /**
+     * Selects the rows equal to any of some values
+     * @param values Accepted values, see {@link #eq(Object)}
+     * @return Mask of the matching rows
+     * @throws IllegalArgumentException if a value cannot be compared with the column
+     */
+    public RowMask isIn(final Object... values) {
+        if (column instanceof final IntColumn ic) {
+            return isIn(ic.values, Arrays.stream(values).filter(v -> isIntegral(number(v)))
+                    .mapToInt(v -> (int) number(v)).toArray());
+        } else if (column instanceof final DateColumn dc) {
+            return isIn(dc.days, Arrays.stream(values).mapToInt(v -> (int) date(v)).toArray());
+        } else if (column instanceof final FloatColumn fc) {
+            final float[] accepted = new float[values.length];
+            for (int k = 0; k < values.length; k += 1) {
+                accepted[k] = (float) number(values[k]);
+            }
+            Arrays.sort(accepted);
+            final float[] v = fc.values;
+            final int n = column.size();
+            final long[] w = new long[(n + 63) >>> 6];
+            for (int i = 0; i < n; i += 1) {
+                if (v[i] == v[i] && Arrays.binarySearch(accepted, v[i]) >= 0) {
+                    w[i >>> 6] |= 1L << i;
+                }
+            }
+            return mask(w, n);
+        }
+        final Set<Object> accepted = new HashSet<>(Arrays.asList(values));
+        return test(accepted::contains);
+    }
+
+    /**
+     * Selects the rows whose text starts with a prefix
+     * @param prefix Expected start of the text
+     * @return Mask of the matching rows, null values never match
+     */
+    public RowMask startsWith(final String prefix) {
+        return test(v -> v != null && v.toString().startsWith(prefix));
+    }
+
+    private boolean isOrdered() {
+        return column instanceof IntColumn || column instanceof FloatColumn || column instanceof DateColumn;
+    }
+
+    /**
+     * Selects the rows within bounds
+     *
+     * @param low      Lower bound, null for none
+     * @param lowIn    true if the lower bound is included
+     * @param high     Upper bound, null for none
+     * @param highIn   true if the upper bound is included
+     * @return Mask of the matching rows
+     */
+    private RowMask range(final Object low, final boolean lowIn, final Object high, final boolean highIn) {
+        if (column instanceof final IntColumn ic) {
+            // Integer bounds including exactly the same ints
+            final double lo = low == null ? Double.NEGATIVE_INFINITY : number(low);
+            final double hi = high == null ? Double.POSITIVE_INFINITY : number(high);
+            final long a = (long) Math.max(Integer.MIN_VALUE, lowIn ? Math.ceil(lo) : Math.floor(lo) + 1);
+            final long b = (long) Math.min(Integer.MAX_VALUE, highIn ? Math.floor(hi) : Math.ceil(hi) - 1);
+            return range(ic.values, a, b);
+        } else if (column instanceof final DateColumn dc) {
+            final long a = low == null ? Integer.MIN_VALUE : date(low) + (lowIn ? 0 : 1);
+            final long b = high == null ? Integer.MAX_VALUE : date(high) - (highIn ? 0 : 1);
+            return range(dc.days, a, b);
+        } else if (column instanceof final FloatColumn fc) {
+            final double lo = low == null ? Double.NEGATIVE_INFINITY : number(low);
+            final double hi = high == null ? Double.POSITIVE_INFINITY : number(high);
+            final double a = lowIn ? lo : Math.nextUp(lo);
+            final double b = highIn ? hi : Math.nextDown(hi);
+            final float[] v = fc.values;
+            final int n = column.size();
+            final long[] w = new long[(n + 63) >>> 6];
+            for (int k = 0; k < w.length; k += 1) {
+                long bits = 0;
+                for (int i = k << 6, end = Math.min(n, i + 64); i < end; i += 1) {
+                    bits |= (v[i] >= a && v[i] <= b ? 1L : 0L) << i;
+                }
+                w[k] = bits;
+            }
+            return mask(w, n);
+        }
+        final Comparable<Object> lo = comparable(low);
+        final Comparable<Object> hi = comparable(high);
+        return test(v -> {
+            if (v == null) {
+                return false;
+            }
+            final int cmpLo = lo == null ? 1 : -lo.compareTo(v);
+            final int cmpHi = hi == null ? -1 : -hi.compareTo(v);
+            return (lowIn ? cmpLo >= 0 : cmpLo > 0) && (highIn ? cmpHi <= 0 : cmpHi < 0);
+        });
+    }
+
+    private RowMask range(final int[] v, final long a, final long b) {
+        final int n = column.size();
+        final long[] w = new long[(n + 63) >>> 6];
+        if (a > b) {
+            return mask(w, n);
+        }
+        // One unsigned comparison of the offset from a checks both bounds
+        final int lo = (int) a;
+        final int span = (int) (b - a);
+        for (int k = 0; k < w.length; k += 1) {
+            long bits = 0;
+            for (int i = k << 6, end = Math.min(n, i + 64); i < end; i += 1) {
+                bits |= (Integer.compareUnsigned(v[i] - lo, span) <= 0 ? 1L : 0L) << i;
+            }
+            w[k] = bits;
+        }
+        return mask(w, n);
+    }
+
+    private RowMask isIn(final int[] v, final int[] accepted) {
+        final int n = column.size();
+        Arrays.sort(accepted);
+        final long[] w = new long[(n + 63) >>> 6];
+        for (int i = 0; i < n; i += 1) {
+            if (Arrays.binarySearch(accepted, v[i]) >= 0) {
+                w[i >>> 6] |= 1L << i;
+            }
+        }
+        return mask(w, n);
+    }
+
+    /**
+     * Creates a mask from its words, without the null rows of the column
+     *
+     * @param w Words of the mask, changed in place
+     * @param n Number of rows
+     * @return New mask
+     */
+    private RowMask mask(final long[] w, final int n) {
+        if (column.nulls != null) {
+            for (int k = 0; k < w.length; k += 1) {
+                w[k] &= ~column.nulls[k];
+            }
+        }
+        return new RowMask(w, n);
+    }
+
+    /**
+     * Selects the rows whose boxed value passes a test
+     *
+     * @param p Test on the value
+     * @return Mask of the matching rows
+     */
+    private RowMask test(final Predicate<Object> p) {
+        final int n = column.size();
+        final long[] w = new long[(n + 63) >>> 6];
+        if (column instanceof final DictionaryColumn dc) {
+            final boolean[] accepted = new boolean[dc.distinct];
+            for (int c = 0; c < accepted.length; c += 1) {
+                accepted[c] = p.test(dc.dictionary[c]);
+            }
+            for (int i = 0; i < n; i += 1) {
+                if (accepted[dc.codes[i]]) {
+                    w[i >>> 6] |= 1L << i;
+                }
+            }
+        } else {
+            for (int i = 0; i < n; i += 1) {
+                if (p.test(column.get(i))) {
+                    w[i >>> 6] |= 1L << i;
+                }
+            }
+        }
+        return mask(w, n);
+    }
+
+    private double number(final Object value) {
+        if (value instanceof final Number n) {
+            return n.doubleValue();
+        }
+        throw mismatch(value);
+    }
+
+    private static boolean isIntegral(final double d) {
+        return d == Math.rint(d) && d >= Integer.MIN_VALUE && d <= Integer.MAX_VALUE;
+    }
+
+    private long date(final Object value) {
+        if (value instanceof final LocalDate d) {
+            return d.toEpochDay();
+        }
+        throw mismatch(value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Comparable<Object> comparable(final Object value) {
+        if (value == null || value instanceof Comparable) {
+            return (Comparable<Object>) value;
+        }
+        throw mismatch(value);
+    }
+
+    private IllegalArgumentException mismatch(final Object value) {
+        return new IllegalArgumentException("Column '" + label + "' of type " + column.type().getSimpleName()
+                + " cannot be compared with " + value);
+    }
+}
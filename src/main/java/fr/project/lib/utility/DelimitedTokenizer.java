@@ -0,0 +1,225 @@
+package fr.project.lib.utility;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Single-pass tokenizer for delimited text (CSV, TSV) working on UTF-8 bytes.
+ * Follows the quoting rules of CommaSeparatedValues.g4 and TabSeparatedValues.g4:
+ * <ul>
+ *   <li>A field is either raw text or a string between double quotes</li>
+ *   <li>Inside quotes, {@code ""} is an escaped quote and delimiters or line breaks are kept</li>
+ *   <li>Records end with {@code \n}, {@code \r\n} or {@code \r}</li>
+ * </ul>
+ * Blank lines are skipped and the last record does not need a line break.
+ * Input can be fed in several buffers, a record may span buffer boundaries.
+ */
+public final class DelimitedTokenizer {
+    /** Delimiter used by CSV files */
+    public static final byte COMMA = ',';
+
+    /** Delimiter used by TSV files */
+    public static final byte TAB = '\t';
+
+    // Largest region of a file mapped at once
+    private static final long MAP_WINDOW = 1L << 30;
+
+    private static final byte QUOTE = '"';
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+
+    /**
+     * Position of the tokenizer inside the current field
+     */
+    private enum State {
+        /** Nothing read yet for the field */
+        FieldStart,
+        /** Inside raw text */
+        Unquoted,
+        /** Inside a quoted string */
+        Quoted,
+        /** Just read a quote inside a quoted string */
+        QuoteInQuoted
+    }
+
+    private final byte delimiter;
+    private final FieldSink sink;
+
+    // Unescaped bytes of the current field
+    private byte[] field = new byte[64];
+    private int len;
+
+    private State state = State.FieldStart;
+    private boolean quoted;
+    private int column;
+
+    /**
+     * Creates a tokenizer sending its fields to the given sink
+     * @param delimiter Field separator, usually {@link #COMMA} or {@link #TAB}
+     * @param sink Receiver of the fields
+     */
+    public DelimitedTokenizer(byte delimiter, FieldSink sink) {
+        this.delimiter = delimiter;
+        this.sink = sink;
+    }
+
+    /**
+     * Tokenizes a whole input stream
+     * @param is The input stream containing the delimited text
+     * @param delimiter Field separator
+     * @param sink Receiver of the fields
+     * @throws IOException If there's an error reading the stream
+     */
+    public static void tokenize(InputStream is, byte delimiter, FieldSink sink) throws IOException {
+        final DelimitedTokenizer tokenizer = new DelimitedTokenizer(delimiter, sink);
+        final byte[] chunk = new byte[1 << 16];
+        final ByteBuffer buf = ByteBuffer.wrap(chunk);
+        int n;
+        while ((n = is.read(chunk)) != -1) {
+            buf.position(0).limit(n);
+            if (!tokenizer.feed(buf)) {
+                return;
+            }
+        }
+        tokenizer.finish();
+    }
+
+    /**
+     * Tokenizes a whole file through a read-only memory mapping.
+     * Files larger than a mapping window are mapped one window after the other.
+     * @param path The file containing the delimited text
+     * @param delimiter Field separator
+     * @param sink Receiver of the fields
+     * @throws IOException If there's an error reading the file
+     */
+    public static void tokenize(Path path, byte delimiter, FieldSink sink) throws IOException {
+        final DelimitedTokenizer tokenizer = new DelimitedTokenizer(delimiter, sink);
+        try (FileChannel fc = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = fc.size();
+            for (long pos = 0; pos < size; pos += MAP_WINDOW) {
+                final MappedByteBuffer buf = fc.map(MapMode.READ_ONLY, pos, Math.min(MAP_WINDOW, size - pos));
+                if (!tokenizer.feed(buf)) {
+                    return;
+                }
+            }
+        }
+        tokenizer.finish();
+    }
+
+    /**
+     * Tokenizes the bytes between the position and the limit of a buffer.
+     * The position is advanced past the consumed bytes.
+     * @param buf Bytes to tokenize
+     * @return false if the sink asked to stop, the position is then just after the last record
+     */
+    public boolean feed(ByteBuffer buf) {
+        final int end = buf.limit();
+        int i = buf.position();
+        while (i < end) {
+            final byte b = buf.get(i++);
+            switch (state) {
+                case FieldStart:
+                    if (b == QUOTE) {
+                        state = State.Quoted;
+                        quoted = true;
+                        break;
+                    }
+                    state = State.Unquoted;
+                    if (!unquoted(b)) {
+                        buf.position(i);
+                        return false;
+                    }
+                    break;
+                case Unquoted:
+                    if (!unquoted(b)) {
+                        buf.position(i);
+                        return false;
+                    }
+                    break;
+                case Quoted:
+                    if (b == QUOTE) {
+                        state = State.QuoteInQuoted;
+                    } else {
+                        append(b);
+                    }
+                    break;
+                case QuoteInQuoted:
+                    if (b == QUOTE) {
+                        // Escaped quote
+                        append(b);
+                        state = State.Quoted;
+                    } else if (b == delimiter) {
+                        endField();
+                    } else if (b == LF || b == CR) {
+                        if (!endRecord()) {
+                            buf.position(i);
+                            return false;
+                        }
+                    } else {
+                        // Text after the closing quote is kept as is
+                        append(b);
+                        state = State.Unquoted;
+                    }
+                    break;
+            }
+        }
+        buf.position(i);
+        return true;
+    }
+
+    /**
+     * Ends the input, emitting the last record if it has no line break
+     * @return false if the sink asked to stop
+     */
+    public boolean finish() {
+        return endRecord();
+    }
+
+    /**
+     * Handles a byte of an unquoted field
+     * @return false if the byte ended a record and the sink asked to stop
+     */
+    private boolean unquoted(byte b) {
+        if (b == delimiter) {
+            endField();
+        } else if (b == LF || b == CR) {
+            return endRecord();
+        } else {
+            append(b);
+        }
+        return true;
+    }
+
+    private void append(byte b) {
+        if (len == field.length) {
+            final byte[] grown = new byte[len * 2];
+            System.arraycopy(field, 0, grown, 0, len);
+            field = grown;
+        }
+        field[len++] = b;
+    }
+
+    private void endField() {
+        sink.field(column++, field, len, quoted);
+        len = 0;
+        quoted = false;
+        state = State.FieldStart;
+    }
+
+    private boolean endRecord() {
+        if (column == 0 && len == 0 && !quoted && state != State.Quoted) {
+            // Blank line, or second half of a \r\n pair
+            state = State.FieldStart;
+            return true;
+        }
+        endField();
+        column = 0;
+        return sink.endRecord();
+    }
+}
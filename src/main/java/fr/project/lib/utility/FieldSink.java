@@ -0,0 +1,22 @@
+package fr.project.lib.utility;
+
+/**
+ * Receiver of the fields produced by a {@link DelimitedTokenizer}.
+ * The first record of a file is its header and is delivered like any other.
+ */
+public interface FieldSink {
+    /**
+     * Receives one field of the current record
+     * @param column 0-based position of the field in its record
+     * @param buf Buffer holding the unescaped UTF-8 bytes of the field, only valid during the call
+     * @param len Number of bytes of the field in buf
+     * @param quoted true if the field was written between quotes
+     */
+    void field(int column, byte[] buf, int len, boolean quoted);
+
+    /**
+     * Marks the end of the current record
+     * @return true to keep reading, false to stop right after this record
+     */
+    boolean endRecord();
+}
@@ -4,6 +4,7 @@ import static org.antlr.v4.runtime.CharStreams.fromStream;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Objects;
 import org.antlr.v4.runtime.CharStream;
 import org.antlr.v4.runtime.CommonTokenStream;
 import fr.project.lib.CommaSeparatedValuesLexer;
@@ -45,19 +46,13 @@ public final class TableInput {
     }
 
     /**
-     * Fills empty cells in the table with default values:
-     * - Empty column labels become "colN"
-     * - Empty data cells become ""
+     * Fills empty column labels with "colN".
+     * Missing data cells are left null, they hold no value.
      */
     public void fill() {
         for (int i = 0; i < w; i += 1) {
             if (col_label[i] == null)
                 col_label[i] = "col" + i;
-            for (int j = 0; j < h; j += 1) {
-                if (data[j][i] == null) {
-                    data[j][i] = "";
-                }
-            }
         }
     }
 
@@ -109,10 +104,10 @@ public final class TableInput {
      * Parses a field's raw text according to its type
      * @param text The raw text content of the field
      * @param pfs The field's parse status (quoted/unquoted)
-     * @return The processed String value
+     * @return The processed String value, null for an empty unquoted field
      */
     private static String parseField(String text, ParseFieldStatus pfs) {
-        return pfs == null ? "" : switch (pfs) {
+        return pfs == null ? null : switch (pfs) {
             case Text -> text;  // Unquoted text used as-is
             case String -> String.join("\"", text.substring(1, text.length() - 1).split("\"\""));
                 // Quoted strings have outer quotes removed and escaped quotes un-doubled
@@ -143,7 +138,7 @@ public final class TableInput {
 
         // Parse column headers
         for (int i = 0; i < width; i += 1) {
-            rv.col_label[i] = parseField(header_fields.field(i));
+            rv.col_label[i] = Objects.toString(parseField(header_fields.field(i)), "");
         }
 
         // Parse data rows
@@ -181,7 +176,7 @@ public final class TableInput {
 
         // Parse column headers
         for (int i = 0; i < width; i += 1) {
-            rv.col_label[i] = parseField(header_fields.field(i));
+            rv.col_label[i] = Objects.toString(parseField(header_fields.field(i)), "");
         }
         
         // Parse data rows
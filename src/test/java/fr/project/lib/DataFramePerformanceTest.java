@@ -7,6 +7,7 @@ import java.nio.file.Paths;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -39,11 +40,12 @@ public class DataFramePerformanceTest {
         int rowCount = structuredDf.getShape()[0];
         int colCount = structuredDf.getShape()[1];
 
+        Random random = new Random(42);
         long start = System.nanoTime();
         for (int i = 0; i < 100; i++) {
-            int row = (int) (Math.random() % rowCount);
-            int col = (int) (Math.random() % colCount);
-            Object val = structuredDf.get(row, col);
+            int row = random.nextInt(rowCount);
+            int col = random.nextInt(colCount);
+            Object val = structuredDf.getElem(row, col);
             assertNotNull(val);
         }
         long duration = System.nanoTime() - start;
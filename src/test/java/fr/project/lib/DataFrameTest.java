@@ -11,11 +11,18 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.lang.reflect.Method;
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -44,13 +51,13 @@ public class DataFrameTest {
     @Test
     void Testpopclassique() {
         var v = new DataFrame(2, 3);
-        v.data[0][0] = 1;
-        v.data[1][0] = 2;
-        v.data[2][0] = 3;
+        v.columns[0].set(0, 1);
+        v.columns[0].set(1, 2);
+        v.columns[0].set(2, 3);
 
-        v.data[0][1] = "un";
-        v.data[1][1] = "deux";
-        v.data[2][1] = "trois";
+        v.columns[1].set(0, "un");
+        v.columns[1].set(1, "deux");
+        v.columns[1].set(2, "trois");
 
         v.col_label[0] = "entier";
         v.col_label[1] = "string";
@@ -60,9 +67,9 @@ public class DataFrameTest {
         assertEquals(poped, expect);
 
         var u = new DataFrame(1, 3);
-        u.data[0][0] = "un";
-        u.data[1][0] = "deux";
-        u.data[2][0] = "trois";
+        u.columns[0].set(0, "un");
+        u.columns[0].set(1, "deux");
+        u.columns[0].set(2, "trois");
 
         u.col_label[0] = "string";
     }
@@ -125,6 +132,90 @@ public class DataFrameTest {
         );
     }
 
+    @Test
+    void testColumnarStorage() {
+        DataFrame v = (DataFrame) df;
+        assertAll(
+            () -> assertEquals(IntColumn.class, v.columns[2].getClass()),
+            () -> assertEquals(FloatColumn.class, v.columns[3].getClass()),
+            () -> assertEquals(BooleanColumn.class, v.columns[4].getClass()),
+            () -> assertEquals(StringColumn.class, v.columns[1].getClass())
+        );
+    }
+
+    @Test
+    void testFieldParsers() {
+        java.util.Random r = new java.util.Random(42);
+        String[] fixed = {"0", "-0.0", "1e10", "3.4028235e38", "1e39", "1.4e-45", "123456789012345678901234",
+            "0.1", "16777217", "9007199254740993", "7.038531e-26", ".5", "5.", "-Infinity", "NaN", "1E-7",
+            "9999999999999999999", "-9999999999999999999.5"};
+        float[] out = new float[1];
+        for (String text : new String[]{"0x1p3", "1.5f", " 2.5 ", "1e", "--1"}) {
+            byte[] b = text.getBytes();
+            assertFalse(FieldParsers.parseFloat(b, 0, b.length, out, 0), text);
+            assertFalse(TypeInference.isFloat(b, 0, b.length), text);
+        }
+        for (int k = 0; k < 20000 + fixed.length; k++) {
+            String text = k < fixed.length ? fixed[k]
+                : switch (k % 3) {
+                    case 0 -> Float.toString(Float.intBitsToFloat(r.nextInt()));
+                    case 1 -> String.format(java.util.Locale.ROOT, "%.4f", r.nextDouble() * 1e6);
+                    default -> (r.nextInt(2000000) - 1000000) + "e" + (r.nextInt(80) - 40);
+                };
+            byte[] b = text.getBytes();
+            assertTrue(FieldParsers.parseFloat(b, 0, b.length, out, 0), text);
+            assertEquals(Float.floatToIntBits(Float.parseFloat(text)), Float.floatToIntBits(out[0]), text);
+        }
+        int[] days = new int[1];
+        for (LocalDate d = LocalDate.of(1599, 12, 1); d.getYear() < 2401; d = d.plusDays(13)) {
+            byte[] b = d.toString().getBytes();
+            assertTrue(FieldParsers.parseDate(b, 0, b.length, days, 0));
+            assertEquals(d.toEpochDay(), days[0]);
+        }
+        byte[] bad = "2023-02-29".getBytes();
+        assertFalse(FieldParsers.parseDate(bad, 0, bad.length, days, 0));
+    }
+
+    @Test
+    void testDictionaryEncoding() throws IOException {
+        String[] status = {"OK", "FAILED", "PENDING, retry"};
+        StringBuilder sb = new StringBuilder("id,status\n");
+        for (int i = 0; i < 3000; i++) {
+            sb.append(i).append(",\"").append(status[i % 3]).append("\"\n");
+        }
+        Path file = Files.createTempFile("status", ".csv");
+        try {
+            Files.writeString(file, sb.toString());
+            for (DataFrame v : new DataFrame[] {
+                    new DataFrame(file.toString()), ParallelLoader.load(file, (byte) ',', 4096)}) {
+                DictionaryColumn c = (DictionaryColumn) v.columns[1];
+                assertEquals(3, c.distinct);
+                assertEquals(String.class, v.col_types[1]);
+                assertEquals("PENDING, retry", v.getElem(5, "status"));
+                assertEquals("FAILED", ((DataFrame) v.get("status")).getElem(298, 0));
+                assertTrue(v.toCSV().endsWith("\n2999,\"PENDING, retry\""));
+
+                DataFrame sorted = v.sortBy("id");
+                v.set(0, 1, "NEW");
+                sorted.set(0, 1, "OTHER");
+                assertEquals("NEW", v.getElem(0, "status"));
+                assertEquals("OTHER", sorted.getElem(0, "status"));
+
+                DictionaryColumn more = new DictionaryColumn(new int[]{1, 0, 1}, new String[]{"OK", "RETRIED"});
+                more.setNull(2);
+                v.appendAll(new DataFrame(new String[]{"id", "status"},
+                    new Column[]{new IntColumn(new int[]{3000, 3001, 3002}), more}, 3));
+                DictionaryColumn grown = (DictionaryColumn) v.columns[1];
+                assertEquals(5, grown.distinct);
+                assertEquals("RETRIED", v.getElem(3000, "status"));
+                assertEquals("OK", v.getElem(3001, "status"));
+                assertNull(v.getElem(3002, "status"));
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
     /* --------------------------
         Edge Case Tests
        -------------------------- */
@@ -141,14 +232,31 @@ public class DataFrameTest {
 
     @Test
     void testMixedTypes() throws IOException {
-        assertThrows(NumberFormatException.class,()-> new DataFrame(RESOURCES_DIR.resolve(TEST_CSVS[2]).toString()));
-        /*IDataFrame mixedDf = 
+        IDataFrame mixedDf = new DataFrame(RESOURCES_DIR.resolve(TEST_CSVS[2]).toString());
         
         assertAll(
-            () -> assertEquals(Integer.class, mixedDf.getElem(1, "value").getClass()), // -3 as Integer
-            () -> assertEquals(Float.class, mixedDf.getElem(0, "value").getClass()),   // 15.5 as Float
-            () -> assertEquals(String.class, mixedDf.getElem(3, "value").getClass())   // "test" as String
-        );*/
+            () -> assertEquals("-3", mixedDf.getElem(1, "value")),     // widened by "test"
+            () -> assertEquals("15.5", mixedDf.getElem(0, "value")),
+            () -> assertEquals("test", mixedDf.getElem(3, "value")),
+            () -> assertEquals("2023-02-20T08:30", mixedDf.getElem(1, "timestamp"))
+        );
+    }
+
+    @Test
+    void testTypeWidening() throws IOException {
+        String csv = "n,x,d\n1,2,2024/02/29\n2,1.5,2023-12-31\n3,-4,1999/01/01\n";
+        int previous = TypeInference.getSampleRows();
+        try {
+            for (int rows : new int[] {0, 1}) {
+                TypeInference.setSampleRows(rows);
+                DataFrame v = new DataFrame(new ByteArrayInputStream(csv.getBytes()));
+                assertArrayEquals(new Class<?>[] {Integer.class, Float.class, LocalDate.class}, v.col_types);
+                assertEquals(2.0f, v.getElem(0, "x"));
+                assertEquals(LocalDate.of(2024, 2, 29), v.getElem(0, "d"));
+            }
+        } finally {
+            TypeInference.setSampleRows(previous);
+        }
     }
 
     /* --------------------------
@@ -170,12 +278,48 @@ public class DataFrameTest {
         assertEquals(2, subset.getShape()[1]); // 2 columns
     }
 
+    @Test
+    void testColumnSubsetIsView() {
+        DataFrame v = (DataFrame) df;
+        DataFrame subset = (DataFrame) df.get("name", "age");
+        assertTrue(subset.columns[1] == v.columns[2]);
+
+        subset.set(0, 1, 99);
+        v.pop("name");
+        assertAll(
+            () -> assertEquals(99, subset.getElem(0, "age")),
+            () -> assertEquals(28, v.getElem(0, "age")),
+            () -> assertEquals("Alice", subset.getElem(0, "name")),
+            () -> assertArrayEquals(new int[]{4, 2}, subset.getShape())
+        );
+    }
+
     @Test
     void testRowSubset() {
         Object[] row = (Object[]) df.getElem(2, null); // 3rd row
         assertEquals((Integer)3, row[0]); // Verify ID
     }
 
+    @Test
+    void testLabelLookup() throws IOException {
+        DataFrame v = new DataFrame(RESOURCES_DIR.resolve(TEST_CSVS[3]).toString());
+        int rows = v.getShape()[0];
+        for (int i = 0; i < rows; i += 97) {
+            assertEquals(v.getElem(i, "temperature"), v.getElem(Integer.toString(i), "temperature"));
+        }
+        assertThrows(IllegalArgumentException.class, () -> v.getElem("missing", "id"));
+
+        IDataFrame subset = v.get("active", "id");
+        v.pop("temperature");
+        assertAll(
+            () -> assertEquals(v.getElem("42", "active"), subset.getElem("42", 0)),
+            () -> assertEquals(42, subset.getElem("42", "id")),
+            () -> assertEquals("id", v.iterator().next()),
+            () -> assertEquals(true, v.getElem(0, "active")),
+            () -> assertThrows(IllegalArgumentException.class, () -> v.getElem(0, "temperature"))
+        );
+    }
+
     @Test
     void testPopColumn() {
         int originalCols = df.getShape()[1];
@@ -207,6 +351,73 @@ public class DataFrameTest {
         }
     }
 
+    @Test
+    void testParsersAgree() throws IOException {
+        for (String file : new String[] {"DUMMY1.csv", "DUMMY2.tsv"}) {
+            DataFrame.InputFormat format = file.endsWith(".tsv")
+                ? DataFrame.InputFormat.TabSeparatedValues
+                : DataFrame.InputFormat.CommaSeparatedValues;
+            DataFrame streaming;
+            DataFrame antlr;
+            try (FileInputStream f = new FileInputStream(RESOURCES_DIR.resolve(file).toFile())) {
+                streaming = new DataFrame(f, format, DataFrame.Parser.Streaming);
+            }
+            try (FileInputStream f = new FileInputStream(RESOURCES_DIR.resolve(file).toFile())) {
+                antlr = new DataFrame(f, format, DataFrame.Parser.Antlr);
+            }
+            assertArrayEquals(antlr.col_types, streaming.col_types);
+            assertEquals(antlr.toCSV(), streaming.toCSV());
+        }
+    }
+
+    @Test
+    void testMappedLoad() throws IOException {
+        Path file = RESOURCES_DIR.resolve(TEST_CSVS[3]);
+        DataFrame mapped = new DataFrame(file.toString());
+        DataFrame streamed;
+        try (FileInputStream f = new FileInputStream(file.toFile())) {
+            streamed = new DataFrame(f);
+        }
+        assertArrayEquals(streamed.col_types, mapped.col_types);
+        assertEquals(streamed.toCSV(), mapped.toCSV());
+    }
+
+    @Test
+    void testParallelLoad() throws IOException {
+        Path file = RESOURCES_DIR.resolve(TEST_CSVS[3]);
+        DataFrame sequential = new DataFrame(file.toString());
+        DataFrame parallel = ParallelLoader.load(file, (byte) ',', 4096);
+        assertArrayEquals(sequential.col_types, parallel.col_types);
+        assertEquals(sequential.toCSV(), parallel.toCSV());
+
+        Path quoted = Files.createTempFile("quoted", ".csv");
+        try {
+            StringBuilder sb = new StringBuilder("id,text\r\n");
+            for (int i = 0; i < 500; i++) {
+                sb.append(i).append(",\"line ").append(i).append("\nwith \"\"quotes\"\"\"\r\n");
+            }
+            Files.writeString(quoted, sb.toString());
+            DataFrame expected = new DataFrame(quoted.toString());
+            DataFrame actual = ParallelLoader.load(quoted, (byte) ',', 100);
+            assertEquals(500, actual.getShape()[0]);
+            assertEquals(expected.toCSV(), actual.toCSV());
+        } finally {
+            Files.deleteIfExists(quoted);
+        }
+    }
+
+    @Test
+    void testStreamingQuotes() throws IOException {
+        String csv = "a,b\r\n\"x,1\",\"say \"\"hi\"\"\"\r\n\n\"multi\nline\",2";
+        DataFrame v = new DataFrame(new ByteArrayInputStream(csv.getBytes()));
+        assertAll(
+            () -> assertArrayEquals(new int[]{2, 2}, v.getShape()),
+            () -> assertEquals("x,1", v.getElem(0, "a")),
+            () -> assertEquals("say \"hi\"", v.getElem(0, "b")),
+            () -> assertEquals("multi\nline", v.getElem(1, "a"))
+        );
+    }
+
     @Test
     void testMeanfloat() throws IOException {
         DataFrame edgeDf = new DataFrame(RESOURCES_DIR.resolve(TEST_CSVS[0]).toString());
@@ -243,5 +454,574 @@ public class DataFrameTest {
         assertEquals(28, edgeDf.Min("age"));
     }
 
+    @Test
+    void testDescribe() {
+        DataFrame v = (DataFrame) df;
+        IDataFrame d = df.describe();
+        assertAll(
+            () -> assertArrayEquals(new int[]{7, 3}, d.getShape()),
+            () -> assertEquals(4f, d.getElem("count", "age")),
+            () -> assertEquals(0f, d.getElem("null", "age")),
+            () -> assertEquals(143f, d.getElem("sum", "age")),
+            () -> assertEquals(35.75f, d.getElem("mean", "age")),
+            () -> assertEquals(54.9167f, (float) d.getElem("variance", "age"), 1e-3),
+            () -> assertEquals(0f, d.getElem("min", "salary")),
+            () -> assertEquals(82000f, d.getElem("max", "salary")),
+            () -> assertTrue(v.columns[2].stats == v.columns[2].stats())
+        );
+    }
+
+    @Test
+    void testVectorKernels() {
+        Random random = new Random(42);
+        int[] ints = random.ints(1003, -1000, 1000).toArray();
+        float[] floats = new float[1003];
+        for (int i = 0; i < floats.length; i++) {
+            floats[i] = i % 17 == 0 ? Float.NaN : (float) random.nextGaussian() * 100;
+        }
+        NumericKernels scalar = new NumericKernels();
+        NumericKernels chosen = NumericKernels.get();
+        assertEquals(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent(), chosen.isVectorized());
+        for (ColumnStats[] pair : new ColumnStats[][]{
+                {scalar.summarize(ints, 1, 1003), chosen.summarize(ints, 1, 1003)},
+                {scalar.summarize(floats, 1, 1003), chosen.summarize(floats, 1, 1003)}}) {
+            assertAll(
+                () -> assertEquals(pair[0].count, pair[1].count),
+                () -> assertEquals(pair[0].nulls, pair[1].nulls),
+                () -> assertEquals(pair[0].sum, pair[1].sum, 1e-6 * Math.abs(pair[0].sum)),
+                () -> assertEquals(pair[0].variance(), pair[1].variance(), 1e-9 * pair[0].variance()),
+                () -> assertEquals(pair[0].min, pair[1].min),
+                () -> assertEquals(pair[0].max, pair[1].max)
+            );
+        }
+    }
+
+    @Test
+    void testParallelReduce() {
+        int[] ints = new int[300_000];
+        float[] floats = new float[300_000];
+        Arrays.fill(ints, Integer.MAX_VALUE);
+        for (int i = 0; i < floats.length; i++) {
+            floats[i] = i % 3;
+        }
+        DataFrame v = new DataFrame(new String[]{"i", "f"},
+            new Column[]{new IntColumn(ints), new FloatColumn(floats)}, ints.length);
+        withParallelExecution(() -> assertAll(
+            () -> assertEquals((float) Integer.MAX_VALUE, v.Mean("i")),
+            () -> assertEquals(1f, v.Mean("f")),
+            () -> assertEquals(2f, v.Max("f")),
+            () -> assertEquals(0f, (float) v.describe().getElem("variance", "i")),
+            () -> assertEquals(2f / 3, (float) v.describe().getElem("variance", "f"), 1e-5)
+        ));
+    }
+
+    // Runs a check on 4 threads, with a threshold low enough to split the test data
+    private static void withParallelExecution(Runnable check) {
+        ForkJoinPool pool = Execution.getPool();
+        int threshold = Execution.getParallelReduceThreshold();
+        ForkJoinPool p = new ForkJoinPool(4);
+        try {
+            Execution.setPool(p);
+            Execution.setParallelReduceThreshold(1000);
+            check.run();
+        } finally {
+            Execution.setPool(pool);
+            Execution.setParallelReduceThreshold(threshold);
+            p.shutdown();
+        }
+    }
+
+    @Test
+    void testWriters() throws IOException {
+        String csv = "a,b,c\n\"x,1\",\"say \"\"hi\"\"\",2024-02-29\n\"multi\nline\",tab\there,1999-12-31";
+        DataFrame v = new DataFrame(new ByteArrayInputStream(csv.getBytes()));
+        assertEquals(csv, v.toCSV());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        v.writeCSV(out);
+        assertEquals(csv, out.toString(StandardCharsets.UTF_8));
+
+        out.reset();
+        v.writeTSV(out);
+        DataFrame back = new DataFrame(new ByteArrayInputStream(out.toByteArray()),
+            DataFrame.InputFormat.TabSeparatedValues);
+        assertEquals(csv, back.toCSV());
+
+        DataFrame numbers = (DataFrame) df.get("id", "salary", "active");
+        StringWriter w = new StringWriter();
+        numbers.writeTSV(w);
+        assertTrue(w.toString().startsWith("id\tsalary\tactive\n1\t75000.5\ttrue\n"));
+    }
+
+    @Test
+    void testColumnarFile() throws IOException {
+        DataFrame v = (DataFrame) df;
+        DataFrame dates = new DataFrame(new ByteArrayInputStream(
+            "d,code,note\n2024-02-29,A,x\n1999-12-31,A,\"é, ü\"\n2000-01-01,A,z".getBytes(StandardCharsets.UTF_8)));
+        DataFrame objects = new DataFrame(2, 2);
+        objects.columns[0].set(0, "text");
+        objects.li_label[1] = "last";
+        Path file = Files.createTempFile("frame", ".rkdf");
+        try {
+            for (DataFrame original : new DataFrame[]{v, dates, objects}) {
+                original.save(file.toString());
+                DataFrame loaded = DataFrame.load(file.toString());
+                assertArrayEquals(original.col_types, loaded.col_types);
+                assertArrayEquals(original.li_label, loaded.li_label);
+                assertEquals(original.toCSV(), loaded.toCSV());
+            }
+            assertTrue(DataFrame.load(file.toString()).getElem(1, 0) == null);
+
+            v.save(file.toString());
+            DataFrame loaded = DataFrame.load(file.toString());
+            assertAll(
+                () -> assertTrue(loaded.columns[3].stats != null),
+                () -> assertEquals(v.Mean("salary"), loaded.Mean("salary")),
+                () -> assertEquals(v.Max("age"), loaded.Max("age"))
+            );
+
+            Files.writeString(file, "id,name\n1,a\n");
+            assertThrows(IOException.class, () -> DataFrame.load(file.toString()));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void testScan() throws IOException {
+        String file = RESOURCES_DIR.resolve(TEST_CSVS[0]).toString();
+        DataFrame v = DataFrame.scan(file)
+            .select("salary", "name")
+            .filter("active", "true"::equals)
+            .collect();
+        assertAll(
+            () -> assertArrayEquals(new int[]{2, 2}, v.getShape()),
+            () -> assertArrayEquals(new Class<?>[]{Float.class, String.class}, v.col_types),
+            () -> assertEquals("Charlie", v.getElem(1, "name")),
+            () -> assertEquals(0f, v.getElem(1, "salary"))
+        );
+
+        DataFrame first = DataFrame.scan(file).filter("age", a -> Integer.parseInt(a) > 30).limit(1).collect();
+        assertEquals("2,Bob,32,82000.0,false", first.toCSV().split("\n")[1]);
+        assertEquals(0, DataFrame.scan(file).limit(0).collect().getShape()[0]);
+        assertThrows(IllegalArgumentException.class, () -> DataFrame.scan(file).select("nope").collect());
+    }
+
+    @Test
+    void testRowMasks() {
+        RowMask older = df.where("age").gt(30);
+        RowMask rich = df.where("salary").between(70000, 80000.5f);
+        assertAll(
+            () -> assertEquals(3, older.count()),
+            () -> assertEquals(1, rich.count()),
+            () -> assertEquals(0, older.and(rich).count()),
+            () -> assertEquals(4, older.or(rich).count()),
+            () -> assertEquals(1, older.not().count()),
+            () -> assertEquals(2, df.where("age").isIn(28, 45, 29.5).count()),
+            () -> assertEquals(2, df.where("active").eq(true).count()),
+            () -> assertEquals(3, df.where("name").lt("David").count()),
+            () -> assertThrows(IllegalArgumentException.class, () -> df.where("age").gt("x"))
+        );
+
+        IDataFrame picked = df.filter(older.and(df.where("name").startsWith("C").not()));
+        assertAll(
+            () -> assertArrayEquals(new int[]{2, 5}, picked.getShape()),
+            () -> assertEquals("Bob", picked.getElem("1", "name")),
+            () -> assertEquals(68000.25f, picked.getElem("3", "salary"))
+        );
+
+        int[] big = new int[1000];
+        for (int i = 0; i < big.length; i++) {
+            big[i] = i - 500;
+        }
+        DataFrame v = new DataFrame(new String[]{"x"}, new Column[]{new IntColumn(big)}, big.length);
+        assertAll(
+            () -> assertEquals(500, v.where("x").lt(0).count()),
+            () -> assertEquals(1000, v.where("x").le(Integer.MAX_VALUE).count()),
+            () -> assertEquals(11, v.where("x").between(-5.5, 5.5).count()),
+            () -> assertEquals(0, v.where("x").eq(0.5).count())
+        );
+    }
+
+    @Test
+    void testSortBy() {
+        IDataFrame byAge = df.sortBy(new String[]{"active", "age"}, new boolean[]{true, false});
+        assertAll(
+            () -> assertEquals("David", byAge.getElem(0, "name")),
+            () -> assertEquals("Bob", byAge.getElem(1, "name")),
+            () -> assertEquals("Charlie", byAge.getElem(2, "name")),
+            () -> assertEquals("0", ((DataFrame) byAge).li_label[3])
+        );
+
+        IntColumn extremes = new IntColumn(new int[]{0, Integer.MAX_VALUE, 0, Integer.MIN_VALUE, 0});
+        extremes.setNull(0);
+        extremes.setNull(2);
+        DataFrame withNulls = new DataFrame(new String[]{"x"}, new Column[]{extremes}, 5);
+        assertEquals("3,4,1,0,2", String.join(",", withNulls.sortBy("x").li_label));
+        assertEquals("1,4,3,0,2", String.join(",",
+            withNulls.sortBy(new String[]{"x"}, new boolean[]{false}).li_label));
+
+        Random random = new Random(7);
+        int n = 5000;
+        float[] f = new float[n];
+        String[] s = new String[n];
+        for (int i = 0; i < n; i++) {
+            f[i] = i % 97 == 0 ? Float.NaN : random.nextInt(200) - 100.5f;
+            s[i] = "k" + random.nextInt(50);
+        }
+        DataFrame v = new DataFrame(new String[]{"f", "s"},
+            new Column[]{new FloatColumn(f), new StringColumn(s)}, n);
+        Runnable check = () -> {
+            DataFrame sorted = v.sortBy(new String[]{"s", "f"}, new boolean[]{true, false});
+            for (int i = 1; i < n; i++) {
+                int a = Integer.parseInt(sorted.li_label[i - 1]);
+                int b = Integer.parseInt(sorted.li_label[i]);
+                assertTrue(s[a].compareTo(s[b]) < 0 || s[a].equals(s[b]) && (Float.isNaN(f[b])
+                    ? !Float.isNaN(f[a]) || a < b : !Float.isNaN(f[a]) && (f[a] > f[b] || f[a] == f[b] && a < b)));
+            }
+        };
+        check.run();
+        withParallelExecution(check);
+    }
+
+    @Test
+    void testGroupBy() {
+        DataFrame byActive = df.groupBy("active").agg(Aggregate.count(), Aggregate.mean("salary"),
+            Aggregate.max("age"), Aggregate.sum("age"));
+        assertAll(
+            () -> assertArrayEquals(new String[]{"active", "count", "mean(salary)", "max(age)", "sum(age)"},
+                byActive.col_label),
+            () -> assertArrayEquals(new Class<?>[]{Boolean.class, Integer.class, Float.class, Integer.class, Float.class},
+                byActive.col_types),
+            () -> assertEquals(true, byActive.getElem(0, "active")),
+            () -> assertEquals(2, byActive.getElem(0, "count")),
+            () -> assertEquals(37500.25f, byActive.getElem(0, "mean(salary)")),
+            () -> assertEquals(38, byActive.getElem(1, "max(age)")),
+            () -> assertEquals(70f, byActive.getElem(1, "sum(age)"))
+        );
+
+        int n = 200_000;
+        int[] a = new int[n];
+        float[] x = new float[n];
+        String[] b = new String[n];
+        for (int i = 0; i < n; i++) {
+            a[i] = i % 7;
+            b[i] = "b" + (i % 3);
+            x[i] = i % 11 == 0 ? Float.NaN : i % 5;
+        }
+        DataFrame v = new DataFrame(new String[]{"a", "b", "x"},
+            new Column[]{new IntColumn(a), new StringColumn(b), new FloatColumn(x)}, n);
+        DataFrame sequential = v.groupBy("a", "b").agg(Aggregate.count(), Aggregate.sum("x"), Aggregate.min("x"));
+        withParallelExecution(() -> {
+            DataFrame parallel = v.groupBy("a", "b").agg(Aggregate.count(), Aggregate.sum("x"), Aggregate.min("x"));
+            assertEquals(21, parallel.getShape()[0]);
+            assertEquals(sequential.toCSV(), parallel.toCSV());
+        });
+        assertThrows(IllegalArgumentException.class, () -> v.groupBy("a").agg(Aggregate.sum("b")));
+    }
+
+    @Test
+    void testJoin() {
+        DataFrame facts = new DataFrame(new String[]{"city", "year", "sales"}, new Column[]{
+            new DictionaryColumn(new int[]{0, 1, 0, 2, 1}, new String[]{"Paris", "Lyon", "Nice"}),
+            new IntColumn(new int[]{2020, 2020, 2021, 2021, 2021}),
+            new FloatColumn(new float[]{1f, 2f, 3f, 4f, 5f})}, 5);
+        DataFrame cities = new DataFrame(new String[]{"city", "region", "sales"}, new Column[]{
+            new StringColumn(new String[]{"Lyon", "Paris", "Lille", "Lyon"}),
+            new StringColumn(new String[]{"ARA", "IDF", "HDF", "ARA2"}),
+            new IntColumn(new int[]{10, 20, 30, 40})}, 4);
+
+        DataFrame inner = facts.join(cities, DataFrame.JoinType.Inner, "city");
+        assertArrayEquals(new String[]{"city", "year", "sales", "region", "sales_right"}, inner.col_label);
+        assertEquals("city,year,sales,region,sales_right\n"
+            + "Paris,2020,1.0,IDF,20\nLyon,2020,2.0,ARA,10\nLyon,2020,2.0,ARA2,40\n"
+            + "Paris,2021,3.0,IDF,20\nLyon,2021,5.0,ARA,10\nLyon,2021,5.0,ARA2,40", inner.toCSV());
+
+        DataFrame left = facts.join(cities, DataFrame.JoinType.Left, "city");
+        assertEquals(7, left.getShape()[0]);
+        assertEquals("Nice", left.getElem(4, "city"));
+        assertNull(left.getElem(4, "region"));
+
+        DataFrame outer = cities.join(facts, DataFrame.JoinType.Outer, "city");
+        assertEquals(8, outer.getShape()[0]);
+        assertEquals("Lille", outer.getElem(4, "city"));
+        assertNull(outer.getElem(4, "sales_right"));
+        assertEquals("Nice", outer.getElem(7, "city"));
+        assertNull(outer.getElem(7, "region"));
+
+        int n = 100_000;
+        int[] keys = new int[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = i % 1000;
+        }
+        DataFrame big = new DataFrame(new String[]{"k"}, new Column[]{new IntColumn(keys)}, n);
+        DataFrame dim = new DataFrame(new String[]{"k", "v"}, new Column[]{
+            new IntColumn(IntStream.range(0, 500).map(i -> i * 2).toArray()),
+            new IntColumn(IntStream.range(0, 500).toArray())}, 500);
+        DataFrame sequential = big.join(dim, DataFrame.JoinType.Inner, "k");
+        withParallelExecution(() -> {
+            DataFrame parallel = big.join(dim, DataFrame.JoinType.Inner, "k");
+            assertEquals(n / 2, parallel.getShape()[0]);
+            assertEquals(sequential.toCSV(), parallel.toCSV());
+        });
+        assertThrows(IllegalArgumentException.class, () -> facts.join(cities, DataFrame.JoinType.Inner, "year"));
+        assertThrows(IllegalArgumentException.class, () -> facts.join(dim, DataFrame.JoinType.Inner, "k"));
+    }
+
+    @Test
+    void testNulls() throws IOException {
+        String csv = "id,score,name,day\n1,2.5,a,2024-01-01\n,,\"\",\n3,1.5,,2024-01-03\n4";
+        DataFrame v = new DataFrame(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+        assertArrayEquals(new Class<?>[]{Integer.class, Float.class, String.class, LocalDate.class}, v.col_types);
+        assertAll(
+            () -> assertNull(v.getElem(1, "id")),
+            () -> assertNull(v.getElem(3, "score")),
+            () -> assertEquals("", v.getElem(1, "name")),
+            () -> assertNull(v.getElem(2, "name")),
+            () -> assertNull(v.getElem(3, "day")),
+            () -> assertEquals(8f / 3, v.Mean("id"), 1e-6),
+            () -> assertEquals(1.5f, v.Min("score")),
+            () -> assertEquals(1f, v.describe().getElem("null", "id"))
+        );
+        assertEquals("id,score,name,day\n1,2.5,a,2024-01-01\n,,\"\",\n3,1.5,,2024-01-03\n4,,,", v.toCSV());
+
+        IntColumn sparse = new IntColumn(IntStream.range(0, 1000).toArray());
+        long sum = 0;
+        double squares = 0;
+        int present = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (i % 7 == 0 && i < 300 || (i >= 128 && i < 256) || i == 999) {
+                sparse.setNull(i);
+            } else {
+                sum += i;
+                squares += (double) i * i;
+                present++;
+            }
+        }
+        ColumnStats stats = ColumnStats.of(sparse);
+        assertEquals(present, stats.count);
+        assertEquals(1000 - present, stats.nulls);
+        assertEquals(sum, (long) stats.sum);
+        assertEquals(squares - (double) sum * sum / present, stats.m2, 1e-6 * stats.m2);
+        assertEquals(1.0, stats.min);
+        assertEquals(998.0, stats.max);
+
+        DataFrame again = new DataFrame(new ByteArrayInputStream(v.toCSV().getBytes(StandardCharsets.UTF_8)));
+        assertEquals(v.toCSV(), again.toCSV());
+        assertEquals(2, v.where("id").ge(2).count());
+        assertEquals("id\n1\n3\n4\n", v.sortBy("id").get("id").toCSV());
+        DataFrame counts = v.groupBy("day").agg(Aggregate.count(), Aggregate.min("id"));
+        assertEquals(3, counts.getShape()[0]);
+        assertNull(counts.getElem(1, "day"));
+        assertEquals(2, counts.getElem(1, "count"));
+        assertEquals(4, counts.getElem(1, "min(id)"));
+
+        Path file = Files.createTempFile("nulls", ".rkdf");
+        try {
+            v.save(file.toString());
+            DataFrame loaded = DataFrame.load(file.toString());
+            assertEquals(v.toCSV(), loaded.toCSV());
+            assertNull(loaded.getElem(1, "id"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        v.set(1, 0, 2);
+        assertEquals(2, v.getElem(1, "id"));
+        v.set(0, 0, null);
+        assertNull(v.getElem(0, "id"));
+    }
+
+    @Test
+    void testBatches() throws IOException {
+        StringBuilder sb = new StringBuilder("id,name,score\n");
+        for (int i = 0; i < 2500; i++) {
+            sb.append(i).append(",\"n, ").append(i % 7).append("\",").append(i % 10 == 0 ? "" : i * 0.5f).append('\n');
+        }
+        Path file = Files.createTempFile("batches", ".csv");
+        try {
+            Files.writeString(file, sb);
+            DataFrame whole = new DataFrame(file.toString());
+            try (BatchReader reader = DataFrame.batches(file.toString(), 1000)) {
+                assertArrayEquals(new String[]{"id", "name", "score"}, reader.labels());
+                assertArrayEquals(new Class<?>[]{Integer.class, String.class, Float.class}, reader.types());
+                int[] sizes = new int[3];
+                int k = 0;
+                float sum = 0;
+                while (reader.hasNext()) {
+                    DataFrame batch = reader.next();
+                    assertArrayEquals(whole.col_types, batch.col_types);
+                    sizes[k++] = batch.getShape()[0];
+                    sum += ColumnStats.of(batch.columns[2]).sum;
+                }
+                assertArrayEquals(new int[]{1000, 1000, 500}, sizes);
+                assertEquals(whole.columns[2].stats().sum, sum, 1e-3);
+            }
+            try (Stream<DataFrame> batches = DataFrame.batches(file.toString(), 700).stream()) {
+                assertEquals(2500, batches.mapToInt(b -> b.getShape()[0]).sum());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        BatchReader mismatch = DataFrame.batches(new ByteArrayInputStream("a\n1\n2\nx".getBytes(StandardCharsets.UTF_8)),
+            DataFrame.InputFormat.CommaSeparatedValues, 2);
+        assertEquals(2, mismatch.next().getShape()[0]);
+        assertThrows(IllegalStateException.class, mismatch::next);
+        assertFalse(DataFrame.batches(new ByteArrayInputStream(new byte[0]),
+            DataFrame.InputFormat.CommaSeparatedValues, 2).hasNext());
+    }
+
+    @Test
+    void testSegmented() throws IOException {
+        StringBuilder sb = new StringBuilder("id,name,score\n");
+        for (int i = 0; i < 2500; i++) {
+            sb.append(i).append(",n").append(i % 7).append(',').append(i % 10 == 0 ? "" : (i * 37 % 101) * 0.5f).append('\n');
+        }
+        Path file = Files.createTempFile("segmented", ".csv");
+        Path saved = Files.createTempFile("segmented", ".rkdf");
+        try (SegmentCache cache = new SegmentCache(8000)) {
+            Files.writeString(file, sb);
+            DataFrame whole = new DataFrame(file.toString());
+            DataFrame v;
+            try (BatchReader reader = DataFrame.batches(file.toString(), 500)) {
+                v = DataFrame.segmented(reader, cache);
+            }
+            assertTrue(cache.getSpills() > 0);
+            assertTrue(cache.getResidentBytes() <= cache.getBudget());
+            assertArrayEquals(whole.col_types, v.col_types);
+            assertAll(
+                () -> assertEquals(whole.getElem(1234, "name"), v.getElem(1234, "name")),
+                () -> assertNull(v.getElem(2000, "score")),
+                () -> assertEquals(whole.Mean("score"), v.Mean("score")),
+                () -> assertEquals(whole.Max("id"), v.Max("id")),
+                () -> assertEquals(whole.toCSV(), v.toCSV()),
+                () -> assertEquals(whole.get("name", "score").toCSV(), v.get("name", "score").toCSV()),
+                () -> assertEquals(whole.sortBy("score").toCSV(), v.sortBy("score").toCSV()),
+                () -> assertEquals(whole.sortBy(new String[]{"name"}, new boolean[]{false}).toCSV(),
+                    v.sortBy(new String[]{"name"}, new boolean[]{false}).toCSV()),
+                () -> assertEquals(whole.groupBy("name").agg(Aggregate.count(), Aggregate.sum("score")).toCSV(),
+                    v.groupBy("name").agg(Aggregate.count(), Aggregate.sum("score")).toCSV())
+            );
+            long misses = cache.getMisses();
+            long hits = cache.getHits();
+            v.getElem(10, "id");
+            v.getElem(11, "id");
+            assertEquals(hits + 1, cache.getHits());
+            assertTrue(cache.getMisses() > misses);
+
+            v.set(3, 0, -5);
+            v.set(2499, 2, null);
+            assertEquals(-5, v.getElem(3, "id"));
+            assertNull(v.getElem(2499, "score"));
+            assertEquals(-5, v.Min("id"));
+
+            DataFrame small = whole.segmented(300, cache);
+            assertEquals(whole.toCSV(), small.toCSV());
+            small.save(saved.toString());
+            DataFrame loaded = DataFrame.load(saved.toString());
+            assertEquals(whole.toCSV(), loaded.toCSV());
+            assertArrayEquals(whole.col_types, loaded.col_types);
+
+            Path shared = Files.createTempDirectory("segments");
+            try (SegmentCache first = new SegmentCache(4000, shared);
+                    SegmentCache second = new SegmentCache(4000, shared)) {
+                DataFrame a = whole.segmented(250, first);
+                DataFrame b = whole.sortBy("score").segmented(250, second);
+                assertEquals(whole.toCSV(), a.toCSV());
+                assertEquals(whole.sortBy("score").toCSV(), b.toCSV());
+            } finally {
+                Files.delete(shared);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(saved);
+        }
+    }
+
+    @Test
+    void testColumnDirectory() throws IOException {
+        String csv = "id,name,score,active\n1,a,2.5,true\n2,b,1.5,false\n3,c,0.5,true";
+        DataFrame v = new DataFrame(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+        List<Object> scores = v.pop("score");
+        assertEquals(asList(2.5f, 1.5f, 0.5f), scores);
+        assertArrayEquals(new Class<?>[]{Integer.class, String.class, Boolean.class}, v.col_types);
+
+        DataFrame dropped = v.drop("active", "id");
+        assertArrayEquals(new Class<?>[]{String.class}, v.col_types);
+        assertArrayEquals(new Class<?>[]{Boolean.class, Integer.class}, dropped.col_types);
+        assertEquals("active,id\ntrue,1\nfalse,2\ntrue,3", dropped.toCSV());
+
+        v.insert(0, dropped);
+        v.addColumn("rank", asList(3, null, 1));
+        assertArrayEquals(new Class<?>[]{Boolean.class, Integer.class, String.class, Integer.class}, v.col_types);
+        assertEquals("active,id,name,rank\ntrue,1,a,3\nfalse,2,b,\ntrue,3,c,1", v.toCSV());
+        v.set(0, 1, 10);
+        assertEquals(1, dropped.getElem(0, "id"));
+        assertEquals(10, v.getElem(0, "id"));
+
+        assertAll(
+            () -> assertThrows(IllegalArgumentException.class, () -> v.insert(1, dropped)),
+            () -> assertThrows(IllegalArgumentException.class, () -> v.addColumn("x", asList(1, 2))),
+            () -> assertThrows(IndexOutOfBoundsException.class, () -> v.insert(9, dropped.get("id"))),
+            () -> assertThrows(IllegalArgumentException.class, () -> v.drop("missing"))
+        );
+    }
+
+    @Test
+    void testAppend() throws IOException {
+        String csv = "id,name,score,day\n1,a,2.5,2024-01-01\n2,b,1.5,2024-01-02";
+        DataFrame v = new DataFrame(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+        IDataFrame view = v.get("id", "name");
+        v.append(3, "c", null, LocalDate.of(2024, 1, 3));
+        assertAll(
+            () -> assertArrayEquals(new int[]{3, 4}, v.getShape()),
+            () -> assertArrayEquals(new int[]{2, 2}, view.getShape()),
+            () -> assertNull(v.getElem("2", "score")),
+            () -> assertEquals("c", v.getElem(2, "name")),
+            () -> assertThrows(IllegalArgumentException.class, () -> v.append(4, "d", 1.0, null)),
+            () -> assertThrows(IllegalArgumentException.class, () -> v.append(4, "d"))
+        );
+        view.append(9, "z");
+        assertEquals(3, v.getShape()[0]);
+        assertEquals(9, view.getElem(2, "id"));
+        assertEquals(9, view.getElem("2", "id"));
+        assertEquals(3, v.getElem("2", "id"));
+
+        for (int i = 4; i < 5000; i++) {
+            v.append(i, "n" + i % 3, i * 0.5f, LocalDate.of(2024, 1, 1).plusDays(i));
+            assertEquals(i, v.getElem(Integer.toString(i - 1), "id"));
+        }
+        assertEquals(4999, v.getShape()[0]);
+        assertEquals(4999f, v.Max("id"));
+        assertEquals("n2", v.getElem("4000", "name"));
+        assertEquals(4997, v.where("score").ge(2).count());
+
+        DataFrame batch = new DataFrame(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+        v.appendAll(batch);
+        assertEquals(5001, v.getShape()[0]);
+        assertEquals("5000", v.li_label[5000]);
+        assertEquals(1.5f, v.getElem(5000, "score"));
+        v.appendAll(v);
+        assertEquals(10002, v.getShape()[0]);
+        assertEquals(LocalDate.of(2024, 1, 2), v.getElem(10001, "day"));
+        assertThrows(IllegalArgumentException.class, () -> v.appendAll(view));
+
+        DataFrame both = DataFrame.concat(batch, v, batch);
+        assertEquals(10006, both.getShape()[0]);
+        assertEquals("1", both.li_label[3]);
+        assertEquals(v.getElem(7, "name"), both.getElem(9, "name"));
+        assertEquals(batch.toCSV().substring(batch.toCSV().indexOf('\n')),
+            both.toCSV().substring(both.toCSV().lastIndexOf("\n1,a")));
+        assertThrows(IllegalArgumentException.class, () -> DataFrame.concat(v, view));
+
+        Path file = Files.createTempFile("append", ".rkdf");
+        try {
+            v.save(file.toString());
+            assertEquals(v.toCSV(), DataFrame.load(file.toString()).toCSV());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
     
 }
\ No newline at end of file